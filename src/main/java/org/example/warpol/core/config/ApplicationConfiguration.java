@@ -1,16 +1,9 @@
 package org.example.warpol.core.config;
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-
-import java.util.Random;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableScheduling
 public class ApplicationConfiguration {
-
-    @Bean
-    public Random random() {
-        return new Random();
-    }
-
 }
@@ -0,0 +1,37 @@
+package org.example.warpol.core.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.warpol.core.protocol.BinaryMessageConverter;
+import org.example.warpol.core.protocol.CommandStreamHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import java.util.List;
+
+/**
+ * Wires the binary protocol into MVC and registers the WebSocket command stream. The converter is
+ * appended after the JSON one, so JSON stays the answer for clients that accept anything.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class BinaryProtocolConfiguration implements WebMvcConfigurer, WebSocketConfigurer {
+
+    public static final String COMMAND_STREAM_PATH = "/api/v1/command/stream";
+
+    private final CommandStreamHandler commandStreamHandler;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BinaryMessageConverter());
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(commandStreamHandler, COMMAND_STREAM_PATH);
+    }
+}
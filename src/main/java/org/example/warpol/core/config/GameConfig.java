@@ -12,6 +12,10 @@ import org.springframework.context.annotation.Configuration;
 public class GameConfig {
     private Board board;
     private Units units;
+    private Journal journal = new Journal();
+    private Tick tick = new Tick();
+    private Reactive reactive = new Reactive();
+    private Stream stream = new Stream();
 
     @Getter @Setter
     public static class Board {
@@ -25,4 +29,32 @@ public class GameConfig {
         private int cannon;
         private int transport;
     }
+
+    @Getter @Setter
+    public static class Journal {
+        private boolean enabled;
+        private String directory = "data/journal";
+        private long segmentSize = 64L * 1024 * 1024;
+        private int snapshotInterval = 1000;
+    }
+
+    @Getter @Setter
+    public static class Tick {
+        private boolean enabled;
+        private long periodMs = 100;
+    }
+
+    @Getter @Setter
+    public static class Reactive {
+        private boolean enabled;
+        private int port = 8082;
+        private int eventLoopThreads;
+        private int maxInFlight = 10_000;
+    }
+
+    @Getter @Setter
+    public static class Stream {
+        private long timeoutMs = 3_600_000;
+        private long retryMs = 3_000;
+    }
 }
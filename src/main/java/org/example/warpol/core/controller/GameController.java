@@ -1,18 +1,32 @@
 package org.example.warpol.core.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.warpol.core.dto.BatchCommandResult;
+import org.example.warpol.core.dto.BulkCommandResult;
+import org.example.warpol.core.dto.CommandHistoryPage;
 import org.example.warpol.core.dto.CommandResultResponse;
 import org.example.warpol.core.dto.ExecuteCommandRequest;
+import org.example.warpol.core.dto.GameResponse;
 import org.example.warpol.core.dto.PlayerCommandRequest;
 import org.example.warpol.core.dto.UnitResponse;
+import org.example.warpol.core.entity.GameEntity;
 import org.example.warpol.core.entity.type.PlayerColor;
-import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.protocol.BinaryProtocol;
+import org.example.warpol.core.service.CommandHistoryService;
 import org.example.warpol.core.service.GameService;
+import org.example.warpol.core.service.UnitSnapshotCache;
+import org.example.warpol.core.stream.BoardStream;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -20,36 +34,115 @@ import java.util.UUID;
 public class GameController {
 
     private final GameService gameService;
+    private final BoardStream boardStream;
+    private final UnitSnapshotCache unitSnapshotCache;
+    private final CommandHistoryService commandHistoryService;
 
     @PostMapping("/game/new")
-    public ResponseEntity<String> createNewGame() {
-        gameService.createNewGameFromConfig();
-        return ResponseEntity.ok("New game started");
+    public ResponseEntity<GameResponse> createNewGame(@RequestParam(required = false) Long seed) {
+        GameEntity game = seed == null
+                ? gameService.createNewGameFromConfig()
+                : gameService.createNewGameFromConfig(seed);
+        return ResponseEntity.ok(GameResponse.from(game));
     }
 
-    @GetMapping("/units")
-    public ResponseEntity<List<UnitResponse>> getUnits(@RequestParam PlayerColor color) {
-        List<Unit> units = gameService.getUnits(color);
-        List<UnitResponse> response = units.stream().map(UnitResponse::from).toList();
-        return ResponseEntity.ok(response);
+    @GetMapping(path = "/units", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getUnits(@RequestParam UUID gameId, @RequestParam PlayerColor color, WebRequest request) {
+        UnitSnapshotCache.Snapshot snapshot = unitSnapshotCache.get(gameId, color);
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .body(snapshot.json());
+    }
+
+    @GetMapping(path = "/units", produces = BinaryProtocol.MEDIA_TYPE_VALUE)
+    public ResponseEntity<byte[]> getUnitsBinary(@RequestParam UUID gameId, @RequestParam PlayerColor color, WebRequest request) {
+        UnitSnapshotCache.Snapshot snapshot = unitSnapshotCache.get(gameId, color);
+        if (request.checkNotModified(snapshot.binaryEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.binaryEtag())
+                .body(snapshot.binary());
+    }
+
+    @GetMapping("/units/history")
+    public ResponseEntity<List<UnitResponse>> getUnitsAt(@RequestParam UUID gameId, @RequestParam PlayerColor color,
+                                                         @RequestParam Instant at) {
+        return ResponseEntity.ok(gameService.getUnitsAt(gameId, color, at));
+    }
+
+    @GetMapping("/units/area")
+    public ResponseEntity<List<UnitResponse>> getUnitsInArea(@RequestParam UUID gameId,
+                                                             @RequestParam int minX, @RequestParam int minY,
+                                                             @RequestParam int maxX, @RequestParam int maxY,
+                                                             @RequestParam(required = false) PlayerColor color) {
+        return ResponseEntity.ok(gameService.getUnitsInArea(gameId, minX, minY, maxX, maxY, color));
+    }
+
+    @GetMapping("/units/radius")
+    public ResponseEntity<List<UnitResponse>> getUnitsInRadius(@RequestParam UUID gameId,
+                                                               @RequestParam int x, @RequestParam int y,
+                                                               @RequestParam int radius,
+                                                               @RequestParam(required = false) PlayerColor color) {
+        return ResponseEntity.ok(gameService.getUnitsInRadius(gameId, x, y, radius, color));
+    }
+
+    @GetMapping("/units/line-of-fire")
+    public ResponseEntity<List<UnitResponse>> getLineOfFire(@RequestParam UUID gameId, @RequestParam UUID unitId,
+                                                            @RequestParam PlayerColor color) {
+        return ResponseEntity.ok(gameService.getLineOfFire(gameId, unitId, color));
+    }
+
+    @GetMapping("/commands")
+    public ResponseEntity<CommandHistoryPage> getCommands(@RequestParam UUID gameId,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(defaultValue = "" + CommandHistoryService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(commandHistoryService.getPage(gameId, after, limit));
+    }
+
+    @GetMapping(path = "/commands/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportCommands(@RequestParam UUID gameId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> commandHistoryService.export(gameId, out));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBoard(@RequestParam UUID gameId) {
+        return boardStream.subscribe(gameId);
     }
 
     @PostMapping("/command/execute")
-    public ResponseEntity<CommandResultResponse> executeCommand(@RequestBody PlayerCommandRequest<ExecuteCommandRequest> request) {
-        CommandResultResponse result = gameService.executeCommand(
-                request.command().unitId(),
-                request.command().commandType(),
-                request.command().targetX(),
-                request.command().targetY(),
+    public CompletableFuture<ResponseEntity<CommandResultResponse>> executeCommand(@RequestBody PlayerCommandRequest<ExecuteCommandRequest> request) {
+        return gameService.submitCommand(
+                request.gameId(),
+                request.command(),
                 request.playerColor()
-        );
-        return ResponseEntity.ok(result);
+        ).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/command/batch")
+    public CompletableFuture<ResponseEntity<List<BatchCommandResult>>> executeCommands(@RequestBody PlayerCommandRequest<List<ExecuteCommandRequest>> request) {
+        return gameService.submitCommands(
+                request.gameId(),
+                request.playerColor(),
+                request.command()
+        ).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/command/random/all")
+    public CompletableFuture<ResponseEntity<BulkCommandResult>> executeRandomCommands(@RequestBody PlayerCommandRequest<Void> request) {
+        return gameService.submitRandomCommands(request.gameId(), request.playerColor())
+                .thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/command/random")
-    public ResponseEntity<CommandResultResponse> executeRandomCommand(@RequestBody PlayerCommandRequest<UUID> request) {
-        CommandResultResponse result = gameService.executeRandomCommand(request.playerColor(), request.command());
-        return ResponseEntity.ok(result);
+    public CompletableFuture<ResponseEntity<CommandResultResponse>> executeRandomCommand(@RequestBody PlayerCommandRequest<UUID> request) {
+        return gameService.submitRandomCommand(request.gameId(), request.playerColor(), request.command())
+                .thenApply(ResponseEntity::ok);
     }
 }
 
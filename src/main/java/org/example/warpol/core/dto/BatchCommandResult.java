@@ -0,0 +1,15 @@
+package org.example.warpol.core.dto;
+
+public record BatchCommandResult(
+        int index,
+        CommandResultResponse result,
+        ErrorResponse error
+) {
+    public static BatchCommandResult success(int index, CommandResultResponse result) {
+        return new BatchCommandResult(index, result, null);
+    }
+
+    public static BatchCommandResult failure(int index, RuntimeException ex) {
+        return new BatchCommandResult(index, null, new ErrorResponse(ex.getClass().getSimpleName(), ex.getMessage()));
+    }
+}
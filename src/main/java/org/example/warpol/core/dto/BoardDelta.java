@@ -0,0 +1,52 @@
+package org.example.warpol.core.dto;
+
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+
+import java.util.UUID;
+
+public record BoardDelta(
+        Kind kind,
+        UUID unitId,
+        UnitType type,
+        PlayerColor color,
+        int positionX,
+        int positionY,
+        CommandType commandType
+) {
+    public enum Kind {
+        UNIT, MOVED, DESTROYED, COMMAND
+    }
+
+    public static BoardDelta unit(Unit unit) {
+        return of(unit.getStatus() == UnitStatus.DESTROYED ? Kind.DESTROYED : Kind.UNIT, unit, null);
+    }
+
+    public static BoardDelta moved(Unit unit) {
+        return of(Kind.MOVED, unit, null);
+    }
+
+    public static BoardDelta destroyed(Unit unit) {
+        return of(Kind.DESTROYED, unit, null);
+    }
+
+    public static BoardDelta command(Unit unit, CommandType commandType) {
+        return of(Kind.COMMAND, unit, commandType);
+    }
+
+    /**
+     * Merges a newer delta of the same unit into this one, keeping only the latest position
+     * unless the unit has already been destroyed.
+     */
+    public BoardDelta coalesce(BoardDelta newer) {
+        return kind == Kind.DESTROYED ? this : newer;
+    }
+
+    private static BoardDelta of(Kind kind, Unit unit, CommandType commandType) {
+        return new BoardDelta(kind, unit.getId(), unit.getType(), unit.getColor(),
+                unit.getPositionX(), unit.getPositionY(), commandType);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.warpol.core.dto;
+
+public record BulkCommandResult(
+        int issued,
+        int executed,
+        int rejected,
+        int unitsDestroyed
+) {
+}
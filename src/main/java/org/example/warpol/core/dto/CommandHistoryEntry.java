@@ -0,0 +1,21 @@
+package org.example.warpol.core.dto;
+
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record CommandHistoryEntry(
+        UUID id,
+        UUID unitId,
+        CommandType commandType,
+        PlayerColor color,
+        int targetX,
+        int targetY,
+        LocalDateTime executionTime,
+        boolean moved,
+        boolean shotExecuted,
+        boolean unitDestroyed
+) {
+}
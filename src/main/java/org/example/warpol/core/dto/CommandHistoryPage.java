@@ -0,0 +1,13 @@
+package org.example.warpol.core.dto;
+
+import java.util.List;
+
+/**
+ * One page of a game's commands in execution order. {@code next} is the cursor of the following
+ * page, or {@code null} on the last one.
+ */
+public record CommandHistoryPage(
+        List<CommandHistoryEntry> commands,
+        String next
+) {
+}
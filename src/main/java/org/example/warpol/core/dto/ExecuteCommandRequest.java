@@ -4,9 +4,22 @@ import org.example.warpol.core.entity.type.CommandType;
 
 import java.util.UUID;
 
+/**
+ * Command for one unit, addressed either by its {@code unitId} or by its {@code unitHandle} within
+ * the game.
+ */
 public record ExecuteCommandRequest(
         UUID unitId,
+        Integer unitHandle,
         CommandType commandType,
         int targetX,
         int targetY
-) {}
+) {
+    public ExecuteCommandRequest(UUID unitId, CommandType commandType, int targetX, int targetY) {
+        this(unitId, null, commandType, targetX, targetY);
+    }
+
+    public static ExecuteCommandRequest forHandle(int unitHandle, CommandType commandType, int targetX, int targetY) {
+        return new ExecuteCommandRequest(null, unitHandle, commandType, targetX, targetY);
+    }
+}
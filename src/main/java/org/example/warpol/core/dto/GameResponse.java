@@ -0,0 +1,16 @@
+package org.example.warpol.core.dto;
+
+import org.example.warpol.core.entity.GameEntity;
+
+import java.util.UUID;
+
+public record GameResponse(
+        UUID id,
+        int width,
+        int height,
+        Long seed
+) {
+    public static GameResponse from(GameEntity game) {
+        return new GameResponse(game.getId(), game.getWidth(), game.getHeight(), game.getSeed());
+    }
+}
@@ -2,7 +2,10 @@ package org.example.warpol.core.dto;
 
 import org.example.warpol.core.entity.type.PlayerColor;
 
+import java.util.UUID;
+
 public record PlayerCommandRequest<T>(
+        UUID gameId,
         PlayerColor playerColor,
         T command
 ) {
@@ -4,11 +4,13 @@ import org.example.warpol.core.entity.type.PlayerColor;
 import org.example.warpol.core.entity.type.UnitStatus;
 import org.example.warpol.core.entity.type.UnitType;
 import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.journal.ReplayedUnit;
 
 import java.util.UUID;
 
 public record UnitResponse(
         UUID id,
+        Integer handle,
         UnitType type,
         PlayerColor color,
         UnitStatus status,
@@ -19,6 +21,7 @@ public record UnitResponse(
     public static UnitResponse from(Unit unit) {
         return new UnitResponse(
                 unit.getId(),
+                unit.getHandle(),
                 unit.getType(),
                 unit.getColor(),
                 unit.getStatus(),
@@ -27,5 +30,18 @@ public record UnitResponse(
                 unit.getCommandCount()
         );
     }
+
+    public static UnitResponse from(ReplayedUnit unit) {
+        return new UnitResponse(
+                unit.id(),
+                null,
+                unit.type(),
+                unit.color(),
+                unit.status(),
+                unit.positionX(),
+                unit.positionY(),
+                unit.commandCount()
+        );
+    }
 }
 
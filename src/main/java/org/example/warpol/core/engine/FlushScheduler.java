@@ -0,0 +1,24 @@
+package org.example.warpol.core.engine;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flushes the write-behind changes every {@code game.persistence.flush-interval-ms}. Not created
+ * when ticks are enabled, as {@link TickScheduler} then flushes after every tick and is the only
+ * writer.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "game.tick", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class FlushScheduler {
+
+    private final WriteBehindPersister persister;
+
+    @Scheduled(fixedDelayString = "${game.persistence.flush-interval-ms:200}")
+    public void flush() {
+        persister.flush();
+    }
+}
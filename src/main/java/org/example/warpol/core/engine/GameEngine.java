@@ -0,0 +1,166 @@
+package org.example.warpol.core.engine;
+
+import jakarta.annotation.PreDestroy;
+import org.example.warpol.core.dto.BoardDelta;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.exception.GameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps the state of every loaded game in memory, one {@link GameShard} per game. Actions for
+ * the same game are serialized on its shard, actions for different games run in parallel on
+ * a pool sized to the available cores.
+ */
+@Component
+public class GameEngine {
+
+    private final Map<UUID, GameShard> shards = new ConcurrentHashMap<>();
+    private final ExecutorService pool;
+    private final List<Consumer<UUID>> unloadListeners = new CopyOnWriteArrayList<>();
+    private volatile BiConsumer<UUID, BoardDelta> deltaListener = (gameId, delta) -> {};
+
+    public GameEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameEngine(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-engine-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setDeltaListener(BiConsumer<UUID, BoardDelta> deltaListener) {
+        this.deltaListener = deltaListener;
+    }
+
+    public void register(GameState state) {
+        UUID gameId = state.getGameId();
+        state.setDeltaListener(delta -> deltaListener.accept(gameId, delta));
+        shards.put(state.getGameId(), new GameShard(state, pool));
+    }
+
+    /**
+     * Runs the listener with the id of every game that is unloaded.
+     */
+    public void addUnloadListener(Consumer<UUID> listener) {
+        unloadListeners.add(listener);
+    }
+
+    /**
+     * Drops the game from memory. Actions already submitted to its shard still run; commands still
+     * waiting for a tick and any later ones fail with {@link GameNotFoundException}.
+     */
+    public void unregister(UUID gameId) {
+        GameShard shard = gameId == null ? null : shards.remove(gameId);
+        if (shard != null) {
+            shard.close();
+            unloadListeners.forEach(listener -> listener.accept(gameId));
+        }
+    }
+
+    public boolean isLoaded(UUID gameId) {
+        return gameId != null && shards.containsKey(gameId);
+    }
+
+    public <T> T execute(UUID gameId, Function<GameState, T> action) {
+        GameShard shard = shard(gameId);
+        if (shard.isOwnedByCurrentThread()) {
+            return action.apply(shard.getState());
+        }
+        return await(shard.submit(action));
+    }
+
+    public long unitsVersion(UUID gameId, PlayerColor color) {
+        return shard(gameId).getState().getUnitsVersion(color);
+    }
+
+    public UnitAdmission admission(UUID gameId) {
+        return shard(gameId).getState().getAdmission();
+    }
+
+    public <T> CompletableFuture<T> submit(UUID gameId, Function<GameState, T> action) {
+        return shard(gameId).submit(action);
+    }
+
+    public <T> CompletableFuture<T> enqueue(UUID gameId, Function<GameState, T> action) {
+        return shard(gameId).enqueue(action);
+    }
+
+    public int tick(long tickNanos) {
+        List<CompletableFuture<Integer>> ticks = shards.values().stream()
+                .map(shard -> shard.tick(tickNanos))
+                .toList();
+        int resolved = 0;
+        for (CompletableFuture<Integer> tick : ticks) {
+            resolved += await(tick);
+        }
+        return resolved;
+    }
+
+    public List<PendingChanges> drainChanges() {
+        List<CompletableFuture<PendingChanges>> drains = shards.values().stream()
+                .map(shard -> shard.submit(GameState::drainChanges))
+                .toList();
+        List<PendingChanges> result = new ArrayList<>();
+        for (CompletableFuture<PendingChanges> drain : drains) {
+            PendingChanges changes = await(drain);
+            if (!changes.isEmpty()) {
+                result.add(changes);
+            }
+        }
+        return result;
+    }
+
+    public void requeue(PendingChanges changes) {
+        GameShard shard = shards.get(changes.gameId());
+        if (shard != null) {
+            await(shard.submit(state -> {
+                state.requeue(changes);
+                return null;
+            }));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private GameShard shard(UUID gameId) {
+        if (gameId == null) {
+            throw new IllegalArgumentException("gameId is required");
+        }
+        GameShard shard = shards.get(gameId);
+        if (shard == null) {
+            throw new GameNotFoundException("Game " + gameId + " not found");
+        }
+        return shard;
+    }
+
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
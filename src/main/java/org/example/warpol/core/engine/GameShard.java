@@ -0,0 +1,155 @@
+package org.example.warpol.core.engine;
+
+import lombok.Getter;
+import org.example.warpol.exception.GameNotFoundException;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Owns the state of one game and runs every action against it one at a time on a shared
+ * pool, so each game has a single writer while different games proceed in parallel.
+ * In tick mode commands are enqueued instead and resolved together by {@link #tick}.
+ * A closed shard fails the commands still waiting for a tick and rejects new actions with
+ * {@link GameNotFoundException}; actions submitted before it was closed still run.
+ */
+public class GameShard {
+
+    private static final int MAX_TASKS_PER_RUN = 256;
+
+    @Getter
+    private final GameState state;
+
+    private final Executor pool;
+    private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Queue<Task> queued = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedCount = new AtomicInteger();
+    private volatile Thread owner;
+    private volatile boolean closed;
+
+    public GameShard(GameState state, Executor pool) {
+        this.state = state;
+        this.pool = pool;
+    }
+
+    public <T> CompletableFuture<T> submit(Function<GameState, T> action) {
+        if (closed) {
+            return CompletableFuture.failedFuture(closedException());
+        }
+        return run(action);
+    }
+
+    public <T> CompletableFuture<T> enqueue(Function<GameState, T> action) {
+        if (closed) {
+            return CompletableFuture.failedFuture(closedException());
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        queued.add(task(action, result));
+        queuedCount.incrementAndGet();
+        if (closed) {
+            run(this::failQueued);
+        }
+        return result;
+    }
+
+    /**
+     * Rejects further actions and fails the commands still waiting for a tick. The queue is
+     * drained on the shard, so a tick that is running finishes first.
+     */
+    public void close() {
+        closed = true;
+        run(this::failQueued);
+    }
+
+    private int failQueued(GameState state) {
+        int failed = 0;
+        Task task;
+        while ((task = queued.poll()) != null) {
+            task.fail(closedException());
+            failed++;
+        }
+        queuedCount.addAndGet(-failed);
+        return failed;
+    }
+
+    private GameNotFoundException closedException() {
+        return new GameNotFoundException("Game " + state.getGameId() + " is no longer loaded");
+    }
+
+    private <T> CompletableFuture<T> run(Function<GameState, T> action) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        tasks.add(task(action, result));
+        schedule();
+        return result;
+    }
+
+    public CompletableFuture<Integer> tick(long tickNanos) {
+        return submit(state -> {
+            int count = queuedCount.get();
+            state.startTick(tickNanos);
+            try {
+                for (int i = 0; i < count; i++) {
+                    queued.poll().run();
+                }
+            } finally {
+                state.endTick();
+                queuedCount.addAndGet(-count);
+            }
+            return count;
+        });
+    }
+
+    public boolean isOwnedByCurrentThread() {
+        return owner == Thread.currentThread();
+    }
+
+    private <T> Task task(Function<GameState, T> action, CompletableFuture<T> result) {
+        return new Task() {
+            @Override
+            public void run() {
+                try {
+                    result.complete(action.apply(state));
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                }
+            }
+
+            @Override
+            public void fail(Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        };
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            pool.execute(this::run);
+        }
+    }
+
+    private void run() {
+        owner = Thread.currentThread();
+        try {
+            Task task;
+            for (int i = 0; i < MAX_TASKS_PER_RUN && (task = tasks.poll()) != null; i++) {
+                task.run();
+            }
+        } finally {
+            owner = null;
+            scheduled.set(false);
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private interface Task extends Runnable {
+        void fail(Throwable ex);
+    }
+}
@@ -0,0 +1,326 @@
+package org.example.warpol.core.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.example.warpol.core.dto.BoardDelta;
+import org.example.warpol.core.entity.CommandEntity;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.entity.unit.UnitPositionListener;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory state of a single game. The units held here are the source of truth while the
+ * game is loaded; changes are collected and handed to {@link WriteBehindPersister} in batches.
+ * Active units are indexed by their slot in an {@link OccupancyGrid} that follows
+ * {@link Unit#move} and {@link Unit#destroy}, which are also published as {@link BoardDelta}s
+ * and recorded as {@link UnitEvent}s for the journal.
+ * A {@link SpatialIndex} over the same units answers area queries. A unit's slot is its
+ * {@link Unit#getHandle() handle}, so it keeps the slot when the game is reloaded and clients may
+ * address it by handle; units without one follow in id order. {@link #getUnits()} keeps the order
+ * units were given in.
+ * Time is read from the game's clock outside of ticks; states built for simulation bring their own
+ * clock and need not record changes, as nothing will write them.
+ * The game is finished once the last active unit of a color is destroyed; it accepts no further
+ * commands and is unloaded after its final changes are written.
+ * Not thread-safe, callers go through {@link GameEngine}.
+ */
+public class GameState implements UnitPositionListener {
+
+    private static final long NO_TICK = Long.MIN_VALUE;
+    /**
+     * Order of units without a handle, which take the slots after all others. Databases order
+     * uuids by their unsigned bytes, so handles assigned from this order are computed in Java.
+     */
+    public static final Comparator<UUID> BY_ID = Comparator.naturalOrder();
+    private static final Comparator<Unit> BY_HANDLE = Comparator
+            .comparing(Unit::getHandle, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Unit::getId, BY_ID);
+
+    @Getter
+    private final GameEntity game;
+
+    @Getter
+    private final OccupancyGrid grid;
+
+    @Getter
+    private final UnitAdmission admission;
+
+    @Getter
+    private final UnitStore store;
+
+    private final SpatialIndex index;
+
+    private final Map<UUID, Unit> units = new LinkedHashMap<>();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private final List<Unit> unitsBySlot = new ArrayList<>();
+    private final Map<UUID, Unit> dirtyUnits = new LinkedHashMap<>();
+    private final List<CommandEntity> pendingCommands = new ArrayList<>();
+    private final List<UnitEvent> pendingEvents = new ArrayList<>();
+    @Getter
+    private final SplittableRandom random;
+    private final LongSupplier clock;
+    private final boolean recordingChanges;
+
+    private final AtomicLongArray unitsVersions = new AtomicLongArray(PlayerColor.values().length);
+    private final int[] activeUnits = new int[PlayerColor.values().length];
+    @Getter
+    private boolean finished;
+    private long tickNanos = NO_TICK;
+    @Setter
+    private Consumer<BoardDelta> deltaListener = delta -> {};
+
+    public GameState(GameEntity game, Collection<? extends Unit> units) {
+        this(game, units, EpochNanos::now, true);
+    }
+
+    /**
+     * @param clock            epoch nanos used outside of ticks
+     * @param recordingChanges whether dirty units, commands and events are kept for
+     *                         {@link #drainChanges()}
+     */
+    public GameState(GameEntity game, Collection<? extends Unit> units, LongSupplier clock, boolean recordingChanges) {
+        this.game = game;
+        this.clock = clock;
+        this.recordingChanges = recordingChanges;
+        this.grid = new OccupancyGrid(game.getWidth(), game.getHeight());
+        this.index = new SpatialIndex(game.getWidth(), game.getHeight());
+        this.random = commandRandom(game);
+        units.forEach(unit -> this.units.put(unit.getId(), unit));
+        units.stream().sorted(BY_HANDLE).forEach(this::register);
+        this.store = new UnitStore(unitsBySlot);
+        this.admission = new UnitAdmission(slots, unitsBySlot, store);
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (store.isActive(slot) && store.color(slot) != null) {
+                activeUnits[store.color(slot).ordinal()]++;
+            }
+        }
+        for (int i = 0; i < unitsVersions.length(); i++) {
+            unitsVersions.set(i, ThreadLocalRandom.current().nextLong());
+        }
+    }
+
+    /**
+     * Generator for the random commands of a game, split from its seed so it does not repeat the
+     * stream used to place the units. Games stored without a seed derive one from their id.
+     */
+    private static SplittableRandom commandRandom(GameEntity game) {
+        long seed = game.getSeed() != null ? game.getSeed()
+                : game.getId().getMostSignificantBits() ^ game.getId().getLeastSignificantBits();
+        return new SplittableRandom(seed).split();
+    }
+
+    private void register(Unit unit) {
+        int slot = unitsBySlot.size();
+        unitsBySlot.add(unit);
+        slots.put(unit.getId(), slot);
+        unit.setPositionListener(this);
+        if (unit.getStatus() == UnitStatus.ACTIVE
+                && grid.contains(unit.getPositionX(), unit.getPositionY())
+                && !grid.isOccupied(unit.getPositionX(), unit.getPositionY())) {
+            grid.set(unit.getPositionX(), unit.getPositionY(), slot);
+            index.add(slot, unit.getPositionX(), unit.getPositionY());
+        }
+    }
+
+    public UUID getGameId() {
+        return game.getId();
+    }
+
+    public Optional<Unit> findUnit(UUID unitId) {
+        return Optional.ofNullable(units.get(unitId));
+    }
+
+    public int slotOf(Unit unit) {
+        return slots.get(unit.getId());
+    }
+
+    public Unit unitInSlot(int slot) {
+        return unitsBySlot.get(slot);
+    }
+
+    public Collection<Unit> getUnits() {
+        return Collections.unmodifiableCollection(units.values());
+    }
+
+    public long nowNanos() {
+        return tickNanos == NO_TICK ? clock.getAsLong() : tickNanos;
+    }
+
+    void startTick(long tickNanos) {
+        this.tickNanos = tickNanos;
+    }
+
+    void endTick() {
+        this.tickNanos = NO_TICK;
+    }
+
+    public boolean isOnBoard(int x, int y) {
+        return grid.contains(x, y);
+    }
+
+    public Unit unitAt(int x, int y) {
+        int slot = grid.get(x, y);
+        return slot == OccupancyGrid.EMPTY ? null : unitsBySlot.get(slot);
+    }
+
+    public List<Unit> unitsAt(int x, int y) {
+        Unit unit = unitAt(x, y);
+        return unit == null ? List.of() : List.of(unit);
+    }
+
+    /**
+     * Active units inside the inclusive rectangle, clipped to the board.
+     */
+    public List<Unit> unitsInArea(int minX, int minY, int maxX, int maxY) {
+        List<Unit> found = new ArrayList<>();
+        index.query(minX, minY, maxX, maxY, slot -> found.add(unitsBySlot.get(slot)));
+        return found;
+    }
+
+    /**
+     * Active units whose Euclidean distance from the cell is at most {@code radius}. The bounds of
+     * the area saturate instead of overflowing, the index clips them to the board anyway.
+     */
+    public List<Unit> unitsInRadius(int x, int y, int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius must not be negative, got " + radius);
+        }
+        long radiusSquared = (long) radius * radius;
+        List<Unit> found = new ArrayList<>();
+        index.query(saturate((long) x - radius), saturate((long) y - radius),
+                saturate((long) x + radius), saturate((long) y + radius), slot -> {
+            Unit unit = unitsBySlot.get(slot);
+            long dx = (long) unit.getPositionX() - x;
+            long dy = (long) unit.getPositionY() - y;
+            if (dx * dx + dy * dy <= radiusSquared) {
+                found.add(unit);
+            }
+        });
+        return found;
+    }
+
+    private static int saturate(long value) {
+        return Math.clamp(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Active units other than the given one in its row and column, the cells an archer may shoot at.
+     */
+    public List<Unit> lineOfFire(Unit unit) {
+        int x = unit.getPositionX();
+        int y = unit.getPositionY();
+        int self = slots.get(unit.getId());
+        List<Unit> found = new ArrayList<>();
+        index.query(0, y, game.getWidth() - 1, y, slot -> {
+            if (slot != self) {
+                found.add(unitsBySlot.get(slot));
+            }
+        });
+        index.query(x, 0, x, game.getHeight() - 1, slot -> {
+            if (slot != self && unitsBySlot.get(slot).getPositionY() != y) {
+                found.add(unitsBySlot.get(slot));
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Units of the color in slot order, active ones and destroyed ones.
+     */
+    public List<Unit> unitsByColor(PlayerColor color) {
+        int[] slots = new int[store.size()];
+        int count = store.ofColor(color, slots);
+        List<Unit> found = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            found.add(unitsBySlot.get(slots[i]));
+        }
+        return found;
+    }
+
+    public void markDirty(Unit unit) {
+        if (recordingChanges) {
+            dirtyUnits.put(unit.getId(), unit);
+        }
+        unitsVersions.incrementAndGet(unit.getColor().ordinal());
+    }
+
+    /**
+     * Version of the units of one color, changed by every {@link #markDirty}. Starts at a random
+     * value so versions of a game reloaded after a restart do not repeat. Safe to read from any thread.
+     */
+    public long getUnitsVersion(PlayerColor color) {
+        return unitsVersions.get(color.ordinal());
+    }
+
+    public void recordCommand(CommandEntity command) {
+        if (recordingChanges) {
+            pendingCommands.add(command);
+        }
+        if (command.getUnit() != null) {
+            deltaListener.accept(BoardDelta.command(command.getUnit(), command.getCommandType()));
+        }
+    }
+
+    @Override
+    public void onMoved(Unit unit, int fromX, int fromY) {
+        int slot = slots.get(unit.getId());
+        store.moved(slot, unit.getPositionX(), unit.getPositionY());
+        grid.clear(fromX, fromY, slot);
+        index.remove(slot, fromX, fromY);
+        if (unit.getStatus() == UnitStatus.ACTIVE) {
+            grid.set(unit.getPositionX(), unit.getPositionY(), slot);
+            index.add(slot, unit.getPositionX(), unit.getPositionY());
+        }
+        if (recordingChanges) {
+            pendingEvents.add(UnitEvent.moved(unit, nowNanos()));
+        }
+        deltaListener.accept(BoardDelta.moved(unit));
+    }
+
+    @Override
+    public void onDestroyed(Unit unit) {
+        int slot = slots.get(unit.getId());
+        store.destroyed(slot);
+        grid.clear(unit.getPositionX(), unit.getPositionY(), slot);
+        index.remove(slot, unit.getPositionX(), unit.getPositionY());
+        if (recordingChanges) {
+            pendingEvents.add(UnitEvent.destroyed(unit, nowNanos()));
+        }
+        deltaListener.accept(BoardDelta.destroyed(unit));
+        if (unit.getColor() != null && --activeUnits[unit.getColor().ordinal()] == 0) {
+            finished = true;
+            game.setActive(false);
+        }
+    }
+
+    PendingChanges drainChanges() {
+        List<UnitSnapshot> snapshots = dirtyUnits.values().stream()
+                .map(UnitSnapshot::from)
+                .toList();
+        List<CommandEntity> commands = List.copyOf(pendingCommands);
+        List<UnitEvent> events = List.copyOf(pendingEvents);
+        dirtyUnits.clear();
+        pendingCommands.clear();
+        pendingEvents.clear();
+        return new PendingChanges(getGameId(), snapshots, commands, events, finished);
+    }
+
+    void requeue(PendingChanges changes) {
+        for (UnitSnapshot snapshot : changes.units()) {
+            Unit unit = units.get(snapshot.id());
+            if (unit != null) {
+                dirtyUnits.putIfAbsent(unit.getId(), unit);
+            }
+        }
+        pendingCommands.addAll(0, changes.commands());
+        pendingEvents.addAll(0, changes.events());
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.warpol.core.engine;
+
+/**
+ * Cell occupancy of a board, stored as unit slots in fixed-size tiles of primitive arrays.
+ * Tiles are allocated on first write, so large and sparsely populated boards stay cheap.
+ */
+public class OccupancyGrid {
+
+    public static final int EMPTY = -1;
+
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private final int width;
+    private final int height;
+    private final int tilesX;
+    private final int[][] tiles;
+
+    public OccupancyGrid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + TILE_MASK) >>> TILE_SHIFT;
+        int tilesY = (height + TILE_MASK) >>> TILE_SHIFT;
+        this.tiles = new int[Math.multiplyExact(tilesX, tilesY)][];
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public int get(int x, int y) {
+        if (!contains(x, y)) {
+            return EMPTY;
+        }
+        int[] tile = tiles[tileIndex(x, y)];
+        return tile == null ? EMPTY : tile[cellIndex(x, y)] - 1;
+    }
+
+    public boolean isOccupied(int x, int y) {
+        return get(x, y) != EMPTY;
+    }
+
+    public void set(int x, int y, int slot) {
+        if (!contains(x, y)) {
+            throw new IndexOutOfBoundsException("Cell (" + x + "," + y + ") is outside of the board");
+        }
+        int tileIndex = tileIndex(x, y);
+        int[] tile = tiles[tileIndex];
+        if (tile == null) {
+            tile = new int[TILE_SIZE * TILE_SIZE];
+            tiles[tileIndex] = tile;
+        }
+        tile[cellIndex(x, y)] = slot + 1;
+    }
+
+    public void clear(int x, int y, int slot) {
+        if (get(x, y) == slot) {
+            tiles[tileIndex(x, y)][cellIndex(x, y)] = 0;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    private int tileIndex(int x, int y) {
+        return (y >>> TILE_SHIFT) * tilesX + (x >>> TILE_SHIFT);
+    }
+
+    private static int cellIndex(int x, int y) {
+        return ((y & TILE_MASK) << TILE_SHIFT) | (x & TILE_MASK);
+    }
+}
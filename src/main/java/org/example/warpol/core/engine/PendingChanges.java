@@ -0,0 +1,26 @@
+package org.example.warpol.core.engine;
+
+import org.example.warpol.core.entity.CommandEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PendingChanges(
+        UUID gameId,
+        List<UnitSnapshot> units,
+        List<CommandEntity> commands,
+        List<UnitEvent> events,
+        boolean finished
+) {
+    public PendingChanges(UUID gameId, List<UnitSnapshot> units, List<CommandEntity> commands, List<UnitEvent> events) {
+        this(gameId, units, commands, events, false);
+    }
+
+    /**
+     * Whether there is nothing to write. Changes of a finished game are never empty, so the game
+     * keeps being flushed until it is marked finished in the database and unloaded.
+     */
+    public boolean isEmpty() {
+        return units.isEmpty() && commands.isEmpty() && events.isEmpty() && !finished;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.warpol.core.engine;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Unit slots bucketed by position in a uniform grid of 16x16 cell buckets. An area query
+ * visits only the buckets it overlaps and, per bucket, only the units stored there, so its
+ * cost follows the number of units in and around the area rather than the area itself.
+ * Each entry packs the slot with its position inside the bucket, which limits slots to 2^23.
+ */
+public class SpatialIndex {
+
+    private static final int BUCKET_SHIFT = 4;
+    private static final int BUCKET_MASK = (1 << BUCKET_SHIFT) - 1;
+    private static final int LOCAL_BITS = 2 * BUCKET_SHIFT;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int MAX_SLOT = (1 << (Integer.SIZE - LOCAL_BITS - 1)) - 1;
+
+    private final int width;
+    private final int height;
+    private final int bucketsX;
+    private final int[][] buckets;
+    private final int[] sizes;
+
+    public SpatialIndex(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.bucketsX = (width + BUCKET_MASK) >>> BUCKET_SHIFT;
+        int bucketsY = (height + BUCKET_MASK) >>> BUCKET_SHIFT;
+        int count = Math.multiplyExact(bucketsX, bucketsY);
+        this.buckets = new int[count][];
+        this.sizes = new int[count];
+    }
+
+    public void add(int slot, int x, int y) {
+        if (slot < 0 || slot > MAX_SLOT) {
+            throw new IllegalArgumentException("Slot " + slot + " cannot be indexed");
+        }
+        int bucket = bucketIndex(x, y);
+        int[] entries = buckets[bucket];
+        if (entries == null) {
+            entries = buckets[bucket] = new int[INITIAL_CAPACITY];
+        } else if (sizes[bucket] == entries.length) {
+            entries = buckets[bucket] = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[sizes[bucket]++] = entry(slot, x, y);
+    }
+
+    public void remove(int slot, int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        int bucket = bucketIndex(x, y);
+        int[] entries = buckets[bucket];
+        int entry = entry(slot, x, y);
+        for (int i = 0; i < sizes[bucket]; i++) {
+            if (entries[i] == entry) {
+                entries[i] = entries[--sizes[bucket]];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Passes the slot of every unit inside the inclusive rectangle, clipped to the board.
+     */
+    public void query(int minX, int minY, int maxX, int maxY, IntConsumer slots) {
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, width - 1);
+        maxY = Math.min(maxY, height - 1);
+        if (minX > maxX || minY > maxY) {
+            return;
+        }
+        for (int by = minY >>> BUCKET_SHIFT; by <= maxY >>> BUCKET_SHIFT; by++) {
+            int originY = by << BUCKET_SHIFT;
+            for (int bx = minX >>> BUCKET_SHIFT; bx <= maxX >>> BUCKET_SHIFT; bx++) {
+                int bucket = by * bucketsX + bx;
+                int size = sizes[bucket];
+                if (size == 0) {
+                    continue;
+                }
+                int originX = bx << BUCKET_SHIFT;
+                int[] entries = buckets[bucket];
+                boolean inside = originX >= minX && originY >= minY
+                        && originX + BUCKET_MASK <= maxX && originY + BUCKET_MASK <= maxY;
+                for (int i = 0; i < size; i++) {
+                    int entry = entries[i];
+                    if (inside || contains(entry, originX, originY, minX, minY, maxX, maxY)) {
+                        slots.accept(entry >>> LOCAL_BITS);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int entry, int originX, int originY, int minX, int minY, int maxX, int maxY) {
+        int x = originX + (entry & BUCKET_MASK);
+        int y = originY + ((entry >>> BUCKET_SHIFT) & BUCKET_MASK);
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    private int bucketIndex(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new IndexOutOfBoundsException("Cell (" + x + "," + y + ") is outside of the board");
+        }
+        return (y >>> BUCKET_SHIFT) * bucketsX + (x >>> BUCKET_SHIFT);
+    }
+
+    private static int entry(int slot, int x, int y) {
+        return slot << LOCAL_BITS | (y & BUCKET_MASK) << BUCKET_SHIFT | (x & BUCKET_MASK);
+    }
+}
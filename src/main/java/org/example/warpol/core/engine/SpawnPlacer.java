@@ -0,0 +1,79 @@
+package org.example.warpol.core.engine;
+
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.ArcherEntity;
+import org.example.warpol.core.entity.unit.CannonEntity;
+import org.example.warpol.core.entity.unit.TransportEntity;
+import org.example.warpol.core.entity.unit.Unit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks distinct spawn cells with a partial Fisher-Yates shuffle over the cell indices of the
+ * board. Only swapped indices are remembered, so the cost is linear in the number of units and
+ * does not depend on how full or how large the board is.
+ */
+public final class SpawnPlacer {
+
+    private SpawnPlacer() {
+    }
+
+    /**
+     * Creates the active units of both players for a new game, color by color and type by type,
+     * numbers them with dense handles in that order and places them on distinct cells drawn from
+     * {@code random}.
+     */
+    public static List<Unit> spawn(GameEntity game, Map<UnitType, Integer> unitsConfig, RandomGenerator random) {
+        List<Unit> units = new ArrayList<>();
+        for (PlayerColor color : PlayerColor.values()) {
+            for (UnitType type : UnitType.values()) {
+                for (int i = 0; i < unitsConfig.getOrDefault(type, 0); i++) {
+                    Unit unit = switch (type) {
+                        case ARCHER -> new ArcherEntity();
+                        case TRANSPORT -> new TransportEntity();
+                        case CANNON -> new CannonEntity();
+                    };
+
+                    unit.setColor(color);
+                    unit.setType(type);
+                    unit.setStatus(UnitStatus.ACTIVE);
+                    unit.setGame(game);
+                    unit.setHandle(units.size());
+                    units.add(unit);
+                }
+            }
+        }
+
+        int width = game.getWidth();
+        long[] cells = sampleCells(random, width, game.getHeight(), units.size());
+        for (int i = 0; i < units.size(); i++) {
+            units.get(i).setPositionX((int) (cells[i] % width));
+            units.get(i).setPositionY((int) (cells[i] / width));
+        }
+        return units;
+    }
+
+    public static long[] sampleCells(RandomGenerator random, int width, int height, int count) {
+        long cells = (long) width * height;
+        if (count > cells) {
+            throw new IllegalArgumentException(
+                    "Cannot place " + count + " units on a " + width + "x" + height + " board");
+        }
+        Map<Long, Long> swapped = new HashMap<>();
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            long j = i + random.nextLong(cells - i);
+            long picked = swapped.getOrDefault(j, j);
+            swapped.put(j, swapped.getOrDefault((long) i, (long) i));
+            result[i] = picked;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.warpol.core.engine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.warpol.core.config.GameConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advances every game at a fixed simulation rate. Commands enqueued since the previous tick
+ * are resolved together with the tick's nominal time as their clock, so cooldowns are
+ * counted in whole ticks, and the resulting changes are written in one batch per tick. The ticks
+ * run on a virtual thread when {@code spring.threads.virtual.enabled} is set.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "game.tick", name = "enabled", havingValue = "true")
+public class TickScheduler {
+
+    private final GameEngine gameEngine;
+    private final WriteBehindPersister persister;
+    private final GameConfig gameConfig;
+    private final Environment environment;
+
+    private ScheduledExecutorService executor;
+    private long startNanos;
+    private long tick;
+
+    @PostConstruct
+    public void start() {
+        long periodMs = gameConfig.getTick().getPeriodMs();
+        startNanos = EpochNanos.now();
+        executor = Threading.VIRTUAL.isActive(environment)
+                ? Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("game-tick").factory())
+                : Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "game-tick");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.scheduleAtFixedRate(this::runTick, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    void runTick() {
+        long tickNanos = startNanos + ++tick * TimeUnit.MILLISECONDS.toNanos(gameConfig.getTick().getPeriodMs());
+        try {
+            gameEngine.tick(tickNanos);
+            persister.flush();
+        } catch (RuntimeException ex) {
+            log.warn("Tick {} failed", tick, ex);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+}
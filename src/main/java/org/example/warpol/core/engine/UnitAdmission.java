@@ -0,0 +1,102 @@
+package org.example.warpol.core.engine;
+
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.exception.CooldownNotElapsedException;
+import org.example.warpol.exception.UnauthorizedUnitAccessException;
+import org.example.warpol.exception.UnitNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Admits commands for the units of one game before they reach the game's shard. Ownership and
+ * cooldown are checked on the calling thread against the game's {@link UnitStore} and the cooldown
+ * slot is reserved with a CAS on the unit's last command timestamp, so concurrent commands for the
+ * same unit are rejected without queueing. Safe for use from any thread.
+ */
+public class UnitAdmission {
+
+    private final Map<UUID, Integer> slots;
+    private final List<Unit> unitsBySlot;
+    private final UnitStore store;
+
+    public UnitAdmission(Map<UUID, Integer> slots, List<Unit> unitsBySlot, UnitStore store) {
+        this.slots = Map.copyOf(slots);
+        this.unitsBySlot = List.copyOf(unitsBySlot);
+        this.store = store;
+    }
+
+    public Reservation reserve(UUID unitId, CommandType commandType, PlayerColor playerColor) {
+        return reserve(unitId, commandType, playerColor, EpochNanos.now());
+    }
+
+    public Reservation reserve(UUID unitId, CommandType commandType, PlayerColor playerColor, long nowNanos) {
+        Integer slot = slots.get(unitId);
+        if (slot == null) {
+            throw new UnitNotFoundException("Unit not found");
+        }
+        if (store.color(slot) != playerColor) {
+            throw new UnauthorizedUnitAccessException("Unauthorized access to unit");
+        }
+        Reservation reservation = reserve(slot, commandType, nowNanos);
+        if (reservation == null) {
+            throw new CooldownNotElapsedException("Cooldown not elapsed for " + commandType);
+        }
+        return reservation;
+    }
+
+    /**
+     * Same checks as {@link #reserve}, but returns {@code null} instead of throwing, for callers
+     * that issue many commands and only need to know which were admitted.
+     */
+    public Reservation tryReserve(UUID unitId, CommandType commandType, PlayerColor playerColor, long nowNanos) {
+        Integer slot = slots.get(unitId);
+        if (slot == null || store.color(slot) != playerColor) {
+            return null;
+        }
+        return reserve(slot, commandType, nowNanos);
+    }
+
+    private Reservation reserve(int slot, CommandType commandType, long nowNanos) {
+        long cooldown = store.cooldownNanos(slot, commandType);
+        while (true) {
+            long last = store.lastCommandNanos(slot);
+            if (last != UnitStore.NEVER && nowNanos - last <= cooldown) {
+                return null;
+            }
+            if (store.compareAndSetLastCommand(slot, last, nowNanos)) {
+                return new Reservation(slot, last, nowNanos);
+            }
+        }
+    }
+
+    /**
+     * Id of the unit with the given handle, which is also its slot.
+     */
+    public UUID unitId(int handle) {
+        if (handle < 0 || handle >= unitsBySlot.size()) {
+            throw new UnitNotFoundException("Unit not found");
+        }
+        return unitsBySlot.get(handle).getId();
+    }
+
+    public UnitType unitType(UUID unitId) {
+        Integer slot = slots.get(unitId);
+        return slot == null ? null : store.type(slot);
+    }
+
+    public void release(Reservation reservation) {
+        store.compareAndSetLastCommand(reservation.slot(), reservation.reservedNanos(), reservation.previousNanos());
+    }
+
+    public record Reservation(int slot, long previousNanos, long reservedNanos) {
+        public LocalDateTime reservedTime() {
+            return EpochNanos.toLocalDateTime(reservedNanos);
+        }
+    }
+}
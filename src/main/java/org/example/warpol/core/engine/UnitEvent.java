@@ -0,0 +1,32 @@
+package org.example.warpol.core.engine;
+
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.unit.Unit;
+
+import java.util.UUID;
+
+/**
+ * Change of a unit on the board, recorded by {@link GameState} in the order it happened and
+ * handed to the journal with the other {@link PendingChanges}.
+ */
+public record UnitEvent(
+        Kind kind,
+        UUID unitId,
+        PlayerColor color,
+        int x,
+        int y,
+        long timeNanos
+) {
+    public enum Kind {
+        MOVED,
+        DESTROYED
+    }
+
+    public static UnitEvent moved(Unit unit, long timeNanos) {
+        return new UnitEvent(Kind.MOVED, unit.getId(), unit.getColor(), unit.getPositionX(), unit.getPositionY(), timeNanos);
+    }
+
+    public static UnitEvent destroyed(Unit unit, long timeNanos) {
+        return new UnitEvent(Kind.DESTROYED, unit.getId(), unit.getColor(), unit.getPositionX(), unit.getPositionY(), timeNanos);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.warpol.core.engine;
+
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.unit.Unit;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record UnitSnapshot(
+        UUID id,
+        int positionX,
+        int positionY,
+        int commandCount,
+        UnitStatus status,
+        LocalDateTime lastCommandTime
+) {
+    public static UnitSnapshot from(Unit unit) {
+        return new UnitSnapshot(
+                unit.getId(),
+                unit.getPositionX(),
+                unit.getPositionY(),
+                unit.getCommandCount(),
+                unit.getStatus(),
+                unit.getLastCommandTime()
+        );
+    }
+
+    public void applyTo(Unit unit) {
+        unit.setPositionX(positionX);
+        unit.setPositionY(positionY);
+        unit.setCommandCount(commandCount);
+        unit.setStatus(status);
+        unit.setLastCommandTime(lastCommandTime);
+    }
+}
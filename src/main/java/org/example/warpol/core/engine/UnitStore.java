@@ -0,0 +1,178 @@
+package org.example.warpol.core.engine;
+
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State of the units of one game as parallel primitive arrays indexed by slot, for scans over many
+ * units that should not touch the entities. The {@link Unit} entities stay the persistence mapping;
+ * {@link GameState} copies positions and statuses over as units move and get destroyed, on the
+ * game's shard. Last command times are reserved by {@link UnitAdmission} with a CAS from any thread.
+ * <p>
+ * Scans write matching slots in ascending order into the caller's array, which must hold
+ * {@link #size()} entries, and return how many they wrote. Their loops are plain passes over the
+ * arrays without branches on the data, so the JIT can unroll and vectorize them. Scans read last
+ * command times without synchronization and may miss a reservation made during the scan.
+ */
+public final class UnitStore {
+
+    static final long NEVER = Long.MIN_VALUE;
+
+    private static final VarHandle LAST_COMMAND = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int COMMANDS = CommandType.values().length;
+    private static final UnitType[] TYPES = UnitType.values();
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    private static final byte NONE = -1;
+    private static final byte ACTIVE = (byte) UnitStatus.ACTIVE.ordinal();
+    private static final byte DESTROYED = (byte) UnitStatus.DESTROYED.ordinal();
+
+    private final int size;
+    private final int[] x;
+    private final int[] y;
+    private final byte[] type;
+    private final byte[] color;
+    private final byte[] status;
+    private final long[] lastCommandNanos;
+    private final long[] cooldownNanos;
+    private final long[] minCooldownNanos;
+
+    UnitStore(List<Unit> unitsBySlot) {
+        size = unitsBySlot.size();
+        x = new int[size];
+        y = new int[size];
+        type = new byte[size];
+        color = new byte[size];
+        status = new byte[size];
+        lastCommandNanos = new long[size];
+        cooldownNanos = new long[size * COMMANDS];
+        minCooldownNanos = new long[size];
+        for (int slot = 0; slot < size; slot++) {
+            Unit unit = unitsBySlot.get(slot);
+            x[slot] = unit.getPositionX();
+            y[slot] = unit.getPositionY();
+            type[slot] = ordinal(unit.getType());
+            color[slot] = ordinal(unit.getColor());
+            status[slot] = ordinal(unit.getStatus());
+            LocalDateTime lastCommandTime = unit.getLastCommandTime();
+            lastCommandNanos[slot] = lastCommandTime == null ? NEVER : EpochNanos.of(lastCommandTime);
+            minCooldownNanos[slot] = Long.MAX_VALUE;
+            for (CommandType commandType : CommandType.values()) {
+                long cooldown = unit.getCooldown(commandType).toNanos();
+                cooldownNanos[slot * COMMANDS + commandType.ordinal()] = cooldown;
+                minCooldownNanos[slot] = Math.min(minCooldownNanos[slot], cooldown);
+            }
+        }
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? NONE : (byte) value.ordinal();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int x(int slot) {
+        return x[slot];
+    }
+
+    public int y(int slot) {
+        return y[slot];
+    }
+
+    public UnitType type(int slot) {
+        return type[slot] == NONE ? null : TYPES[type[slot]];
+    }
+
+    public PlayerColor color(int slot) {
+        return color[slot] == NONE ? null : COLORS[color[slot]];
+    }
+
+    public boolean isActive(int slot) {
+        return status[slot] == ACTIVE;
+    }
+
+    public long cooldownNanos(int slot, CommandType commandType) {
+        return cooldownNanos[slot * COMMANDS + commandType.ordinal()];
+    }
+
+    public long lastCommandNanos(int slot) {
+        return (long) LAST_COMMAND.getVolatile(lastCommandNanos, slot);
+    }
+
+    boolean compareAndSetLastCommand(int slot, long expected, long nanos) {
+        return LAST_COMMAND.compareAndSet(lastCommandNanos, slot, expected, nanos);
+    }
+
+    void moved(int slot, int newX, int newY) {
+        x[slot] = newX;
+        y[slot] = newY;
+    }
+
+    void destroyed(int slot) {
+        status[slot] = DESTROYED;
+    }
+
+    /**
+     * Units of the color, active ones and destroyed ones.
+     */
+    public int ofColor(PlayerColor playerColor, int[] out) {
+        byte wanted = (byte) playerColor.ordinal();
+        int found = 0;
+        for (int slot = 0; slot < size; slot++) {
+            out[found] = slot;
+            found += color[slot] == wanted ? 1 : 0;
+        }
+        return found;
+    }
+
+    /**
+     * Active units of the color.
+     */
+    public int activeOfColor(PlayerColor playerColor, int[] out) {
+        byte wanted = (byte) playerColor.ordinal();
+        int found = 0;
+        for (int slot = 0; slot < size; slot++) {
+            out[found] = slot;
+            found += (color[slot] == wanted & status[slot] == ACTIVE) ? 1 : 0;
+        }
+        return found;
+    }
+
+    /**
+     * Active units of the color whose shortest cooldown has elapsed at {@code nowNanos}, so at least
+     * one command would be admitted for them.
+     */
+    public int ready(PlayerColor playerColor, long nowNanos, int[] out) {
+        byte wanted = (byte) playerColor.ordinal();
+        int found = 0;
+        for (int slot = 0; slot < size; slot++) {
+            long last = lastCommandNanos[slot];
+            boolean elapsed = last == NEVER | nowNanos - last > minCooldownNanos[slot];
+            out[found] = slot;
+            found += (color[slot] == wanted & status[slot] == ACTIVE & elapsed) ? 1 : 0;
+        }
+        return found;
+    }
+
+    /**
+     * Lowest slot of an active unit that does not belong to the color, or {@code -1}.
+     */
+    public int firstActiveEnemy(PlayerColor playerColor) {
+        byte own = (byte) playerColor.ordinal();
+        for (int slot = 0; slot < size; slot++) {
+            if (color[slot] != own && status[slot] == ACTIVE) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.warpol.core.engine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.journal.CommandJournal;
+import org.example.warpol.core.metrics.GameMetrics;
+import org.example.warpol.core.repository.CommandRepository;
+import org.example.warpol.core.repository.GameRepository;
+import org.example.warpol.core.repository.UnitRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Loads the active games into {@link GameEngine} on startup and writes the changes collected by
+ * the engine to the database, one transaction per game and flush. Flushes are triggered by
+ * {@link FlushScheduler}, or by {@link TickScheduler} after every tick when ticks are enabled.
+ * Executed commands go to the {@link CommandJournal} instead when it is enabled, together with
+ * the unit events of the flush. Flushes are serialized by a lock rather than the monitor, so that
+ * a flush running on a virtual thread does not pin its carrier while it waits for the database.
+ * A finished game is marked inactive with its last flush and then unloaded from the engine.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WriteBehindPersister {
+
+    private final GameEngine gameEngine;
+    private final GameRepository gameRepository;
+    private final UnitRepository unitRepository;
+    private final CommandRepository commandRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Optional<CommandJournal> commandJournal;
+    private final GameMetrics gameMetrics;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        transactionTemplate.executeWithoutResult(status ->
+                gameRepository.findAllByIsActiveTrue().forEach(game ->
+                        gameEngine.register(new GameState(game, unitRepository.findAllByGameId(game.getId())))));
+    }
+
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        try {
+            for (PendingChanges changes : gameEngine.drainChanges()) {
+                flush(changes);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * With the journal enabled it is the record of commands and unit events, so they are appended
+     * before the database is written and only the unit rows are retried when the write fails.
+     */
+    private void flush(PendingChanges changes) {
+        long startNanos = System.nanoTime();
+        PendingChanges unwritten = changes;
+        try {
+            if (commandJournal.isPresent()) {
+                commandJournal.get().append(changes);
+                unwritten = new PendingChanges(changes.gameId(), changes.units(), List.of(), List.of(), changes.finished());
+            }
+            transactionTemplate.executeWithoutResult(status -> write(changes));
+            gameMetrics.flushed(changes.units().size(), changes.commands().size(), true, startNanos);
+            if (changes.finished()) {
+                gameEngine.unregister(changes.gameId());
+                log.info("Game {} is finished and was unloaded", changes.gameId());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Flush of game {} failed, changes will be retried", changes.gameId(), ex);
+            gameMetrics.flushed(changes.units().size(), changes.commands().size(), false, startNanos);
+            gameEngine.requeue(unwritten);
+        }
+    }
+
+    private void write(PendingChanges changes) {
+        if (!changes.units().isEmpty()) {
+            Map<UUID, UnitSnapshot> snapshots = new HashMap<>();
+            changes.units().forEach(snapshot -> snapshots.put(snapshot.id(), snapshot));
+            for (Unit unit : unitRepository.findAllById(snapshots.keySet())) {
+                snapshots.get(unit.getId()).applyTo(unit);
+            }
+        }
+        if (commandJournal.isEmpty()) {
+            commandRepository.saveAll(changes.commands());
+        }
+        if (changes.finished()) {
+            gameRepository.findById(changes.gameId()).ifPresent(game -> game.setActive(false));
+        }
+    }
+}
@@ -11,7 +11,9 @@ import org.example.warpol.core.entity.unit.Unit;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "commands")
+@Table(name = "commands", indexes = {
+        @Index(name = "idx_commands_game_execution_time", columnList = "game_id, execution_time, id")
+})
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Data
@@ -29,6 +31,12 @@ public class CommandEntity extends BaseEntity {
 
     private LocalDateTime executionTime;
 
+    private boolean moved;
+
+    private boolean shotExecuted;
+
+    private boolean unitDestroyed;
+
     @ManyToOne
     @JoinColumn(name = "game_id", nullable = false, updatable = false)
     private GameEntity game;
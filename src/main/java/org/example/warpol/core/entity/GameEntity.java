@@ -19,9 +19,6 @@ public class GameEntity extends BaseEntity {
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Unit> units = new ArrayList<>();
 
-    @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<CommandEntity> commands = new ArrayList<>();
-
     @Column(nullable = false)
     private int width;
 
@@ -30,4 +27,6 @@ public class GameEntity extends BaseEntity {
 
     @Column(nullable = false)
     private boolean isActive;
+
+    private Long seed;
 }
@@ -0,0 +1,31 @@
+package org.example.warpol.core.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates version 7 UUIDs: 48 bits of epoch milliseconds, a 12-bit counter and 62 random bits.
+ * Ids created later sort after earlier ones, also within the same millisecond and across threads,
+ * so inserts append to the primary key index instead of landing on random pages.
+ */
+public class TimeOrderedUuidGenerator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long timeAndCounter = LAST.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis() << 12));
+        long mostSignificantBits = (timeAndCounter >>> 12) << 16 | 0x7000L | (timeAndCounter & 0xFFFL);
+        long leastSignificantBits = RANDOM.nextLong() >>> 2 | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+}
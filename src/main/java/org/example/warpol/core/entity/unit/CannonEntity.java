@@ -1,5 +1,6 @@
 package org.example.warpol.core.entity.unit;
 
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -8,6 +9,7 @@ import org.example.warpol.core.entity.type.CommandType;
 import java.time.Duration;
 
 @Entity
+@DiscriminatorValue("CANNON")
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class CannonEntity extends Unit {
@@ -3,6 +3,7 @@ package org.example.warpol.core.entity.unit;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.example.warpol.core.entity.BaseEntity;
 import org.example.warpol.core.entity.GameEntity;
 import org.example.warpol.core.entity.type.CommandType;
@@ -14,7 +15,9 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Entity
-@Inheritance(strategy = InheritanceType.JOINED)
+@Table(name = "unit", uniqueConstraints = @UniqueConstraint(name = "uk_unit_game_handle", columnNames = {"game_id", "handle"}))
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "type", discriminatorType = DiscriminatorType.STRING)
 @Data
 @EqualsAndHashCode(callSuper = true)
 public abstract class Unit extends BaseEntity {
@@ -22,6 +25,12 @@ public abstract class Unit extends BaseEntity {
     @Version
     private Integer version;
 
+    /**
+     * Dense index of the unit within its game, from 0, assigned at spawn. The game engine keeps the
+     * unit in this slot and clients may address it by handle instead of id.
+     */
+    private Integer handle;
+
     private int positionX;
     private int positionY;
 
@@ -34,6 +43,7 @@ public abstract class Unit extends BaseEntity {
     private UnitStatus status;
 
     @Enumerated(EnumType.STRING)
+    @Column(name = "type", insertable = false, updatable = false)
     private UnitType type;
 
     private LocalDateTime lastCommandTime;
@@ -42,22 +52,28 @@ public abstract class Unit extends BaseEntity {
     @JoinColumn(name = "game_id", nullable = false, updatable = false)
     private GameEntity game;
 
-    public abstract Duration getCooldown(CommandType commandType);
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private UnitPositionListener positionListener;
 
-    public boolean isCooldownElapsed(CommandType commandType) {
-        if (lastCommandTime == null) return true;
-        Duration cooldown = getCooldown(commandType);
-        return LocalDateTime.now().isAfter(lastCommandTime.plus(cooldown));
-    }
+    public abstract Duration getCooldown(CommandType commandType);
 
     public void move(int newX, int newY) {
+        int fromX = this.positionX;
+        int fromY = this.positionY;
         this.positionX = newX;
         this.positionY = newY;
         this.commandCount++;
-        this.lastCommandTime = LocalDateTime.now();
+        if (positionListener != null) {
+            positionListener.onMoved(this, fromX, fromY);
+        }
     }
 
     public void destroy() {
         this.status = UnitStatus.DESTROYED;
+        if (positionListener != null) {
+            positionListener.onDestroyed(this);
+        }
     }
 }
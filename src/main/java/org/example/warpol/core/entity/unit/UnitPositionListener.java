@@ -0,0 +1,8 @@
+package org.example.warpol.core.entity.unit;
+
+public interface UnitPositionListener {
+
+    void onMoved(Unit unit, int fromX, int fromY);
+
+    void onDestroyed(Unit unit);
+}
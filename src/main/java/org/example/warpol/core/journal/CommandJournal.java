@@ -0,0 +1,325 @@
+package org.example.warpol.core.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.PendingChanges;
+import org.example.warpol.core.engine.UnitEvent;
+import org.example.warpol.core.entity.CommandEntity;
+import org.example.warpol.core.entity.unit.Unit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of spawned units, unit events and executed commands, kept in memory-mapped
+ * segment files of fixed-size {@link JournalRecord}s. Every appended batch is forced to disk once,
+ * so the write-behind flush acts as the group commit. A segment is rotated when it is full and
+ * named after the sequence of its first record.
+ * <p>
+ * The units of every journaled game are folded from its records as they are appended, and a
+ * snapshot of them is written every {@code snapshot-interval} records of that game. A game is
+ * rebuilt, now or at any earlier time, from its latest suitable snapshot and the segments after it.
+ * The projection of a game is dropped when the game is unloaded from the engine, after a last
+ * snapshot, and loaded again from that snapshot if the game is read or written later.
+ * <p>
+ * Appends are guarded by a lock rather than the monitor, since forcing a segment to disk while
+ * holding a monitor would pin the carrier of a virtual thread.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "game.journal", name = "enabled", havingValue = "true")
+public class CommandJournal {
+
+    private static final String PREFIX = "commands-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int snapshotInterval;
+    private final SnapshotStore snapshots;
+    private final Map<UUID, GameProjection> projections = new HashMap<>();
+    private final Set<UUID> touched = new HashSet<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private long nextSequence;
+
+    @Autowired
+    public CommandJournal(GameConfig gameConfig, GameEngine gameEngine) {
+        this(gameConfig);
+        gameEngine.addUnloadListener(this::evict);
+    }
+
+    public CommandJournal(GameConfig gameConfig) {
+        GameConfig.Journal config = gameConfig.getJournal();
+        long size = Math.min(config.getSegmentSize(), Integer.MAX_VALUE);
+        this.directory = Path.of(config.getDirectory());
+        this.segmentSize = (int) Math.max(JournalRecord.SIZE, size - size % JournalRecord.SIZE);
+        this.snapshotInterval = Math.max(1, config.getSnapshotInterval());
+        this.snapshots = new SnapshotStore(directory.resolve("snapshots"));
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = segments();
+            if (segments.isEmpty()) {
+                openSegment(0);
+            } else {
+                Path last = segments.get(segments.size() - 1);
+                open(last);
+                nextSequence = sequenceOf(last);
+                while (JournalRecord.isPresent(buffer, position)) {
+                    nextSequence = JournalRecord.readFrom(buffer, position).sequence() + 1;
+                    position += JournalRecord.SIZE;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open command journal in " + directory, ex);
+        }
+    }
+
+    public void appendSpawns(Collection<? extends Unit> units) {
+        lock.lock();
+        try {
+            for (Unit unit : units) {
+                write(JournalRecord.spawn(nextSequence, unit));
+            }
+            sync();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void appendCommands(Collection<CommandEntity> commands) {
+        if (commands.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (CommandEntity command : commands) {
+                write(JournalRecord.command(nextSequence, command));
+            }
+            sync();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the unit events of one flush followed by its commands, forced to disk together.
+     */
+    public void append(PendingChanges changes) {
+        if (changes.events().isEmpty() && changes.commands().isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (UnitEvent event : changes.events()) {
+                write(JournalRecord.event(nextSequence, changes.gameId(), event));
+            }
+            for (CommandEntity command : changes.commands()) {
+                write(JournalRecord.command(nextSequence, command));
+            }
+            sync();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getNextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void replay(Consumer<JournalRecord> consumer) {
+        replay(0, consumer);
+    }
+
+    /**
+     * Replays the segments that may hold records from {@code fromSequence} on, earlier records of
+     * the first of them included.
+     */
+    private void replay(long fromSequence, Consumer<JournalRecord> consumer) {
+        List<Path> segments;
+        lock.lock();
+        try {
+            segments = segments();
+        } finally {
+            lock.unlock();
+        }
+        int first = 0;
+        while (first + 1 < segments.size() && sequenceOf(segments.get(first + 1)) <= fromSequence) {
+            first++;
+        }
+        for (Path segment : segments.subList(first, segments.size())) {
+            try (FileChannel reader = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer view = reader.map(FileChannel.MapMode.READ_ONLY, 0, reader.size());
+                for (int offset = 0; JournalRecord.isPresent(view, offset); offset += JournalRecord.SIZE) {
+                    consumer.accept(JournalRecord.readFrom(view, offset));
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot read journal segment " + segment, ex);
+            }
+        }
+    }
+
+    /**
+     * Current units of the game, including destroyed ones, or an empty map for an unknown game.
+     */
+    public Map<UUID, ReplayedUnit> rebuild(UUID gameId) {
+        lock.lock();
+        try {
+            GameProjection projection = projections.get(gameId);
+            if (projection != null) {
+                return new LinkedHashMap<>(projection.units());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return rebuild(gameId, Long.MAX_VALUE);
+    }
+
+    /**
+     * Units of the game as they were at {@code atNanos}, loaded from the latest snapshot taken
+     * before that time and the records that follow it.
+     */
+    public Map<UUID, ReplayedUnit> rebuild(UUID gameId, long atNanos) {
+        return new LinkedHashMap<>(load(gameId, atNanos).units());
+    }
+
+    private GameProjection load(UUID gameId, long atNanos) {
+        GameProjection snapshot = snapshots.latest(gameId, atNanos);
+        GameProjection projection = snapshot != null ? snapshot : new GameProjection();
+        long after = projection.sequence();
+        replay(after + 1, record -> {
+            if (record.sequence() > after && record.gameId().equals(gameId) && record.timeNanos() <= atNanos) {
+                projection.apply(record);
+            }
+        });
+        return projection;
+    }
+
+    /**
+     * Drops the projection of the game, writing a snapshot first if records were applied since
+     * the last one.
+     */
+    public void evict(UUID gameId) {
+        lock.lock();
+        try {
+            GameProjection projection = projections.remove(gameId);
+            if (projection != null && projection.sinceSnapshot() > 0) {
+                snapshots.write(gameId, projection);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                buffer.force();
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(JournalRecord record) {
+        project(record);
+        if (position + JournalRecord.SIZE > buffer.capacity()) {
+            rotate();
+        }
+        record.writeTo(buffer, position);
+        position += JournalRecord.SIZE;
+        nextSequence++;
+    }
+
+    private void sync() {
+        buffer.force();
+        for (UUID gameId : touched) {
+            GameProjection projection = projections.get(gameId);
+            if (projection.sinceSnapshot() >= snapshotInterval) {
+                snapshots.write(gameId, projection);
+                projection.snapshotTaken();
+            }
+        }
+        touched.clear();
+    }
+
+    /**
+     * Applies the record to the projection of its game before it is written. A game seen for the
+     * first time is loaded from its snapshot and the journal, unless the record spawns it.
+     */
+    private void project(JournalRecord record) {
+        GameProjection projection = projections.get(record.gameId());
+        if (projection == null) {
+            projection = record.kind() == JournalRecord.Kind.SPAWN
+                    ? new GameProjection()
+                    : load(record.gameId(), Long.MAX_VALUE);
+            projections.put(record.gameId(), projection);
+        }
+        projection.apply(record);
+        touched.add(record.gameId());
+    }
+
+    private void rotate() {
+        try {
+            buffer.force();
+            channel.close();
+            openSegment(nextSequence);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot rotate command journal", ex);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        open(directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX)));
+        log.info("Command journal segment starting at sequence {} opened", firstSequence);
+    }
+
+    private void open(Path segment) throws IOException {
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, Math.min(channel.size(), Integer.MAX_VALUE)));
+        position = 0;
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list command journal segments in " + directory, ex);
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
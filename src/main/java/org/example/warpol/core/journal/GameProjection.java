@@ -0,0 +1,62 @@
+package org.example.warpol.core.journal;
+
+import org.example.warpol.core.entity.type.UnitStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Units of one game folded from its journal records, together with the sequence and time of the
+ * last record applied. Spawns add units, {@code MOVED} and {@code DESTROYED} events change them and
+ * commands stamp their last command time.
+ */
+final class GameProjection {
+
+    private final Map<UUID, ReplayedUnit> units = new LinkedHashMap<>();
+    private long sequence = -1;
+    private long timeNanos = Long.MIN_VALUE;
+    private int sinceSnapshot;
+
+    GameProjection() {
+    }
+
+    GameProjection(long sequence, long timeNanos, Iterable<ReplayedUnit> units) {
+        this.sequence = sequence;
+        this.timeNanos = timeNanos;
+        units.forEach(unit -> this.units.put(unit.id(), unit));
+    }
+
+    void apply(JournalRecord record) {
+        switch (record.kind()) {
+            case SPAWN -> units.put(record.unitId(), new ReplayedUnit(record.unitId(), record.unitType(), record.color(),
+                    UnitStatus.ACTIVE, record.x(), record.y(), 0, record.timeNanos()));
+            case MOVED -> units.computeIfPresent(record.unitId(), (id, unit) -> unit.movedTo(record.x(), record.y()));
+            case DESTROYED -> units.computeIfPresent(record.unitId(), (id, unit) -> unit.destroyed());
+            case COMMAND -> units.computeIfPresent(record.unitId(), (id, unit) -> unit.commandedAt(record.timeNanos()));
+        }
+        sequence = record.sequence();
+        timeNanos = Math.max(timeNanos, record.timeNanos());
+        sinceSnapshot++;
+    }
+
+    Map<UUID, ReplayedUnit> units() {
+        return units;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    long timeNanos() {
+        return timeNanos;
+    }
+
+    int sinceSnapshot() {
+        return sinceSnapshot;
+    }
+
+    void snapshotTaken() {
+        sinceSnapshot = 0;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.warpol.core.journal;
+
+import org.example.warpol.core.engine.EpochNanos;
+import org.example.warpol.core.engine.UnitEvent;
+import org.example.warpol.core.entity.CommandEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Fixed-size binary entry of the {@link CommandJournal}: a spawned unit, an executed command or a
+ * {@link UnitEvent} that moved or destroyed a unit. Layout, {@value #SIZE} bytes:
+ * magic (4), kind (1), type ordinal (1), color ordinal (1), outcome flags (1), sequence (8),
+ * game id (16), unit id (16), time in epoch nanos (8), x (4), y (4).
+ */
+public record JournalRecord(
+        long sequence,
+        Kind kind,
+        UUID gameId,
+        UUID unitId,
+        UnitType unitType,
+        CommandType commandType,
+        PlayerColor color,
+        int x,
+        int y,
+        long timeNanos,
+        boolean moved,
+        boolean shotExecuted,
+        boolean unitDestroyed
+) {
+    public static final int SIZE = 64;
+
+    private static final int MAGIC = 0x57524A31;
+    private static final int MOVED = 1;
+    private static final int SHOT = 2;
+    private static final int DESTROYED = 4;
+
+    public enum Kind {
+        SPAWN,
+        COMMAND,
+        MOVED,
+        DESTROYED
+    }
+
+    public static JournalRecord spawn(long sequence, Unit unit) {
+        return new JournalRecord(sequence, Kind.SPAWN, unit.getGame().getId(), unit.getId(),
+                unit.getType(), null, unit.getColor(), unit.getPositionX(), unit.getPositionY(),
+                EpochNanos.now(), false, false, false);
+    }
+
+    public static JournalRecord command(long sequence, CommandEntity command) {
+        return new JournalRecord(sequence, Kind.COMMAND, command.getGame().getId(), command.getUnit().getId(),
+                null, command.getCommandType(), command.getColor(), command.getTargetX(), command.getTargetY(),
+                EpochNanos.of(command.getExecutionTime()),
+                command.isMoved(), command.isShotExecuted(), command.isUnitDestroyed());
+    }
+
+    public static JournalRecord event(long sequence, UUID gameId, UnitEvent event) {
+        Kind kind = event.kind() == UnitEvent.Kind.MOVED ? Kind.MOVED : Kind.DESTROYED;
+        return new JournalRecord(sequence, kind, gameId, event.unitId(), null, null, event.color(),
+                event.x(), event.y(), event.timeNanos(), false, false, false);
+    }
+
+    void writeTo(ByteBuffer buffer, int offset) {
+        buffer.put(offset + 4, (byte) kind.ordinal());
+        buffer.put(offset + 5, (byte) switch (kind) {
+            case SPAWN -> unitType.ordinal();
+            case COMMAND -> commandType.ordinal();
+            case MOVED, DESTROYED -> 0;
+        });
+        buffer.put(offset + 6, (byte) color.ordinal());
+        buffer.put(offset + 7, (byte) ((moved ? MOVED : 0) | (shotExecuted ? SHOT : 0) | (unitDestroyed ? DESTROYED : 0)));
+        buffer.putLong(offset + 8, sequence);
+        buffer.putLong(offset + 16, gameId.getMostSignificantBits());
+        buffer.putLong(offset + 24, gameId.getLeastSignificantBits());
+        buffer.putLong(offset + 32, unitId.getMostSignificantBits());
+        buffer.putLong(offset + 40, unitId.getLeastSignificantBits());
+        buffer.putLong(offset + 48, timeNanos);
+        buffer.putInt(offset + 56, x);
+        buffer.putInt(offset + 60, y);
+        buffer.putInt(offset, MAGIC);
+    }
+
+    static boolean isPresent(ByteBuffer buffer, int offset) {
+        return offset + SIZE <= buffer.limit() && buffer.getInt(offset) == MAGIC;
+    }
+
+    static JournalRecord readFrom(ByteBuffer buffer, int offset) {
+        Kind kind = Kind.values()[buffer.get(offset + 4)];
+        int type = buffer.get(offset + 5);
+        int flags = buffer.get(offset + 7);
+        return new JournalRecord(
+                buffer.getLong(offset + 8),
+                kind,
+                new UUID(buffer.getLong(offset + 16), buffer.getLong(offset + 24)),
+                new UUID(buffer.getLong(offset + 32), buffer.getLong(offset + 40)),
+                kind == Kind.SPAWN ? UnitType.values()[type] : null,
+                kind == Kind.COMMAND ? CommandType.values()[type] : null,
+                PlayerColor.values()[buffer.get(offset + 6)],
+                buffer.getInt(offset + 56),
+                buffer.getInt(offset + 60),
+                buffer.getLong(offset + 48),
+                (flags & MOVED) != 0,
+                (flags & SHOT) != 0,
+                (flags & DESTROYED) != 0
+        );
+    }
+}
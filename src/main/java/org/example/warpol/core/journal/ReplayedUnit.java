@@ -0,0 +1,30 @@
+package org.example.warpol.core.journal;
+
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+
+import java.util.UUID;
+
+public record ReplayedUnit(
+        UUID id,
+        UnitType type,
+        PlayerColor color,
+        UnitStatus status,
+        int positionX,
+        int positionY,
+        int commandCount,
+        long lastCommandNanos
+) {
+    ReplayedUnit movedTo(int x, int y) {
+        return new ReplayedUnit(id, type, color, status, x, y, commandCount + 1, lastCommandNanos);
+    }
+
+    ReplayedUnit commandedAt(long nanos) {
+        return new ReplayedUnit(id, type, color, status, positionX, positionY, commandCount, nanos);
+    }
+
+    ReplayedUnit destroyed() {
+        return new ReplayedUnit(id, type, color, UnitStatus.DESTROYED, positionX, positionY, commandCount, lastCommandNanos);
+    }
+}
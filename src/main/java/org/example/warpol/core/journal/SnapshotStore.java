@@ -0,0 +1,133 @@
+package org.example.warpol.core.journal;
+
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Compact snapshots of {@link GameProjection}s, one directory per game and one file per snapshot
+ * named after the sequence of the last record it contains. Files are written to a temporary name
+ * and moved into place, so a snapshot is either complete or absent. Layout: magic (4), unit count
+ * (4), sequence (8), time in epoch nanos (8), then {@value #UNIT_SIZE} bytes per unit: id (16),
+ * type, color and status ordinals (1 each), padding (1), x (4), y (4), command count (4) and last
+ * command time in epoch nanos (8).
+ */
+class SnapshotStore {
+
+    private static final int MAGIC = 0x57525331;
+    private static final int HEADER_SIZE = 24;
+    private static final int UNIT_SIZE = 40;
+    private static final String SUFFIX = ".snapshot";
+
+    private final Path directory;
+
+    SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    void write(UUID gameId, GameProjection projection) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + projection.units().size() * UNIT_SIZE);
+        buffer.putInt(MAGIC)
+                .putInt(projection.units().size())
+                .putLong(projection.sequence())
+                .putLong(projection.timeNanos());
+        for (ReplayedUnit unit : projection.units().values()) {
+            buffer.putLong(unit.id().getMostSignificantBits())
+                    .putLong(unit.id().getLeastSignificantBits())
+                    .put((byte) unit.type().ordinal())
+                    .put((byte) unit.color().ordinal())
+                    .put((byte) unit.status().ordinal())
+                    .put((byte) 0)
+                    .putInt(unit.positionX())
+                    .putInt(unit.positionY())
+                    .putInt(unit.commandCount())
+                    .putLong(unit.lastCommandNanos());
+        }
+        buffer.flip();
+
+        Path gameDirectory = directory.resolve(gameId.toString());
+        Path target = gameDirectory.resolve(String.format("%020d%s", projection.sequence(), SUFFIX));
+        Path temporary = gameDirectory.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(gameDirectory);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write snapshot of game " + gameId, ex);
+        }
+    }
+
+    /**
+     * The latest snapshot of the game taken at or before {@code atNanos}, or {@code null} if there
+     * is none.
+     */
+    GameProjection latest(UUID gameId, long atNanos) {
+        for (Path snapshot : snapshots(gameId)) {
+            GameProjection projection = read(snapshot);
+            if (projection.timeNanos() <= atNanos) {
+                return projection;
+            }
+        }
+        return null;
+    }
+
+    private List<Path> snapshots(UUID gameId) {
+        Path gameDirectory = directory.resolve(gameId.toString());
+        if (!Files.isDirectory(gameDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(gameDirectory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list snapshots of game " + gameId, ex);
+        }
+    }
+
+    private static GameProjection read(Path snapshot) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a snapshot: " + snapshot);
+            }
+            int count = buffer.getInt();
+            long sequence = buffer.getLong();
+            long timeNanos = buffer.getLong();
+            List<ReplayedUnit> units = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(buffer.getLong(), buffer.getLong());
+                UnitType type = UnitType.values()[buffer.get()];
+                PlayerColor color = PlayerColor.values()[buffer.get()];
+                UnitStatus status = UnitStatus.values()[buffer.get()];
+                buffer.get();
+                units.add(new ReplayedUnit(id, type, color, status,
+                        buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong()));
+            }
+            return new GameProjection(sequence, timeNanos, units);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read snapshot " + snapshot, ex);
+        }
+    }
+}
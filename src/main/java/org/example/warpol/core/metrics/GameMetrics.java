@@ -0,0 +1,133 @@
+package org.example.warpol.core.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.UnitType;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters of command resolution and persistence. The timers of the hot path are
+ * registered up front and looked up by ordinal, so recording a phase costs a clock read and
+ * a histogram bucket increment. Commands of units without a type are recorded under unit
+ * {@code NONE}.
+ */
+@Component
+public class GameMetrics {
+
+    public enum Phase {
+        ADMISSION, LOOKUP, VALIDATION, DESTROY, RECORD
+    }
+
+    private static final String SUCCESS = "success";
+    private static final String NONE = "NONE";
+    private static final int COMMANDS = CommandType.values().length;
+    private static final int UNITS = UnitType.values().length + 1;
+
+    private final MeterRegistry registry;
+    private final Timer[] phases = new Timer[Phase.values().length * COMMANDS * UNITS];
+    private final Timer[] succeeded = new Timer[COMMANDS * UNITS];
+    private final DistributionSummary flushedUnits;
+    private final DistributionSummary flushedCommands;
+
+    public GameMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (CommandType commandType : CommandType.values()) {
+            for (UnitType unitType : unitTypes()) {
+                for (Phase phase : Phase.values()) {
+                    phases[index(phase, commandType, unitType)] = timer(Timer.builder("game.command.phase")
+                            .tag("phase", phase.name().toLowerCase())
+                            .tag("command", commandType.name())
+                            .tag("unit", name(unitType)));
+                }
+                succeeded[commandType.ordinal() * UNITS + unit(unitType)] =
+                        commandTimer(commandType.name(), name(unitType), SUCCESS);
+            }
+        }
+        flushedUnits = DistributionSummary.builder("game.persistence.batch")
+                .tag("kind", "units")
+                .register(registry);
+        flushedCommands = DistributionSummary.builder("game.persistence.batch")
+                .tag("kind", "commands")
+                .register(registry);
+    }
+
+    /**
+     * Records a phase that started at {@code startNanos} and returns the current
+     * {@link System#nanoTime()} as the start of the next one.
+     */
+    public long phase(Phase phase, CommandType commandType, UnitType unitType, long startNanos) {
+        long now = System.nanoTime();
+        phases[index(phase, commandType, unitType)].record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void commandSucceeded(CommandType commandType, UnitType unitType, long startNanos) {
+        succeeded[commandType.ordinal() * UNITS + unit(unitType)]
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void commandFailed(CommandType commandType, UnitType unitType, Throwable ex, long startNanos) {
+        commandTimer(commandType.name(), name(unitType), ex.getClass().getSimpleName())
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rejected(Throwable ex, int status) {
+        registry.counter("game.requests.rejected",
+                "reason", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status)).increment();
+    }
+
+    public void flushed(int units, int commands, boolean written, long startNanos) {
+        Timer.builder("game.persistence.flush")
+                .tag("outcome", written ? SUCCESS : "failure")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (written) {
+            flushedUnits.record(units);
+            flushedCommands.record(commands);
+        }
+    }
+
+    private Timer commandTimer(String commandType, String unitType, String outcome) {
+        return timer(Timer.builder("game.command")
+                .tag("command", commandType)
+                .tag("unit", unitType)
+                .tag("outcome", outcome));
+    }
+
+    private Timer timer(Timer.Builder builder) {
+        return builder.publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(registry);
+    }
+
+    private static int index(Phase phase, CommandType commandType, UnitType unitType) {
+        return (phase.ordinal() * COMMANDS + commandType.ordinal()) * UNITS + unit(unitType);
+    }
+
+    private static List<UnitType> unitTypes() {
+        List<UnitType> unitTypes = new ArrayList<>(Arrays.asList(UnitType.values()));
+        unitTypes.add(null);
+        return unitTypes;
+    }
+
+    private static int unit(UnitType unitType) {
+        return unitType == null ? UNITS - 1 : unitType.ordinal();
+    }
+
+    private static String name(UnitType unitType) {
+        return unitType == null ? NONE : unitType.name();
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.warpol.core.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the index behind loading the active games on startup. On PostgreSQL it is a partial index
+ * over active games only, so finished games do not grow it; databases without partial indexes get a
+ * plain index on {@code is_active}. Runs after Hibernate has created the schema and does nothing if
+ * the index exists.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class ActiveGamesIndexMigration {
+
+    static final String INDEX = "idx_games_active";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equals(database)) {
+            jdbcTemplate.execute("create index if not exists " + INDEX + " on games (id) where is_active");
+        } else {
+            jdbcTemplate.execute("create index if not exists " + INDEX + " on games (is_active)");
+        }
+        log.debug("Index {} on games is in place for {}", INDEX, database);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.warpol.core.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.warpol.core.engine.GameState;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Numbers units stored before they had a {@code handle}. Within each game they get the next free
+ * handles in {@link GameState#BY_ID} order, which is the slot order the engine used for them before.
+ * The order is taken in Java rather than in SQL, where uuids compare differently. Runs after
+ * Hibernate has added the column and does nothing once every unit has a handle.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class UnitHandleMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        int updated = 0;
+        for (UUID gameId : jdbcTemplate.queryForList("select distinct game_id from unit where handle is null", UUID.class)) {
+            Integer last = jdbcTemplate.queryForObject("select max(handle) from unit where game_id = ?", Integer.class, gameId);
+            List<UUID> unitIds = jdbcTemplate.queryForList(
+                    "select id from unit where game_id = ? and handle is null", UUID.class, gameId)
+                    .stream()
+                    .sorted(GameState.BY_ID)
+                    .toList();
+            int next = last == null ? 0 : last + 1;
+            for (UUID unitId : unitIds) {
+                updated += jdbcTemplate.update("update unit set handle = ? where id = ?", next++, unitId);
+            }
+        }
+        if (updated > 0) {
+            log.info("Assigned handles to {} units", updated);
+        }
+    }
+}
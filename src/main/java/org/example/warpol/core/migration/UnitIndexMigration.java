@@ -0,0 +1,32 @@
+package org.example.warpol.core.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drops the indexes on units by game and position and by game and color. Running games look units
+ * up in memory, so no query used them, and each cost an update on every move or destroyed unit.
+ * Does nothing once they are gone.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class UnitIndexMigration {
+
+    static final List<String> UNUSED_INDEXES = List.of("idx_unit_game_position", "idx_unit_game_color");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        UNUSED_INDEXES.forEach(index -> jdbcTemplate.execute("drop index if exists " + index));
+        log.debug("Unused indexes {} on unit are gone", UNUSED_INDEXES);
+    }
+}
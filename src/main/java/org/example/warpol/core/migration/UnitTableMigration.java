@@ -0,0 +1,63 @@
+package org.example.warpol.core.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.warpol.core.entity.type.UnitType;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Map;
+
+/**
+ * Migrates units stored with the former JOINED inheritance to the single {@code unit} table.
+ * The {@code type} column is the discriminator, so existing rows only need it filled in where it
+ * is missing; afterwards the per-type subtables are dropped. Does nothing on an up-to-date schema.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class UnitTableMigration {
+
+    private static final Map<String, UnitType> LEGACY_TABLES = Map.of(
+            "archer_entity", UnitType.ARCHER,
+            "cannon_entity", UnitType.CANNON,
+            "transport_entity", UnitType.TRANSPORT
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        LEGACY_TABLES.forEach((table, type) -> {
+            if (!tableExists(table)) {
+                return;
+            }
+            int updated = jdbcTemplate.update(
+                    "update unit set type = ? where type is null and id in (select id from " + table + ")",
+                    type.name());
+            jdbcTemplate.execute("drop table " + table + " cascade");
+            log.info("Migrated legacy table {} into unit, {} rows needed a type", table, updated);
+        });
+    }
+
+    private boolean tableExists(String table) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{table, table.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
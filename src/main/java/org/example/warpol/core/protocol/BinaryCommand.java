@@ -0,0 +1,61 @@
+package org.example.warpol.core.protocol;
+
+import org.example.warpol.core.dto.ExecuteCommandRequest;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Command in the binary protocol, addressing its unit by handle instead of id. Layout, big-endian,
+ * {@value #SIZE} bytes: game id (16), color ordinal (1), unit handle (4), command type ordinal (1),
+ * target x (2), target y (2). Targets are signed 16-bit, commands aiming further are rejected
+ * rather than truncated.
+ */
+public record BinaryCommand(
+        UUID gameId,
+        PlayerColor color,
+        int unitHandle,
+        CommandType commandType,
+        int targetX,
+        int targetY
+) {
+    public static final int SIZE = 26;
+
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    private static final CommandType[] COMMANDS = CommandType.values();
+
+    public BinaryCommand {
+        if (targetX != (short) targetX || targetY != (short) targetY) {
+            throw new IllegalArgumentException("Target (" + targetX + "," + targetY + ") does not fit a binary command");
+        }
+    }
+
+    public static BinaryCommand readFrom(ByteBuffer buffer) {
+        try {
+            UUID gameId = new UUID(buffer.getLong(), buffer.getLong());
+            PlayerColor color = COLORS[Byte.toUnsignedInt(buffer.get())];
+            int unitHandle = buffer.getInt();
+            CommandType commandType = COMMANDS[Byte.toUnsignedInt(buffer.get())];
+            return new BinaryCommand(gameId, color, unitHandle, commandType, buffer.getShort(), buffer.getShort());
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Malformed binary command", ex);
+        }
+    }
+
+    public ExecuteCommandRequest toRequest() {
+        return ExecuteCommandRequest.forHandle(unitHandle, commandType, targetX, targetY);
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(gameId.getMostSignificantBits())
+                .putLong(gameId.getLeastSignificantBits())
+                .put((byte) color.ordinal())
+                .putInt(unitHandle)
+                .put((byte) commandType.ordinal())
+                .putShort((short) targetX)
+                .putShort((short) targetY);
+    }
+}
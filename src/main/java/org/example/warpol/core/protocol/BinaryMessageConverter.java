@@ -0,0 +1,67 @@
+package org.example.warpol.core.protocol;
+
+import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.dto.ErrorResponse;
+import org.example.warpol.core.dto.ExecuteCommandRequest;
+import org.example.warpol.core.dto.PlayerCommandRequest;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads commands and writes command results and errors in the {@link BinaryProtocol}, so clients can
+ * choose it with {@code Content-Type} and {@code Accept} on the JSON endpoints. Commands are read
+ * into the same request as JSON ones, addressing their unit by handle.
+ */
+public class BinaryMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final ResolvableType COMMAND_REQUEST =
+            ResolvableType.forClassWithGenerics(PlayerCommandRequest.class, ExecuteCommandRequest.class);
+
+    public BinaryMessageConverter() {
+        super(BinaryProtocol.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == PlayerCommandRequest.class
+                || clazz == CommandResultResponse.class
+                || clazz == ErrorResponse.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return COMMAND_REQUEST.isAssignableFrom(ResolvableType.forType(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (clazz == CommandResultResponse.class || clazz == ErrorResponse.class) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(PlayerCommandRequest.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        BinaryCommand command = BinaryCommand.readFrom(ByteBuffer.wrap(inputMessage.getBody().readNBytes(BinaryCommand.SIZE)));
+        return new PlayerCommandRequest<>(command.gameId(), command.color(), command.toRequest());
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes = body instanceof CommandResultResponse result
+                ? BinaryProtocol.encodeResult(result)
+                : BinaryProtocol.encodeError((ErrorResponse) body);
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.warpol.core.protocol;
+
+import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.dto.ErrorResponse;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.springframework.http.MediaType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of commands, command results and unit lists, negotiated as
+ * {@value #MEDIA_TYPE_VALUE} on the same endpoints as JSON. Units are addressed by their handle in the
+ * game instead of their id. All fixed-width fields are big-endian.
+ * <ul>
+ * <li>Command: see {@link BinaryCommand}.</li>
+ * <li>Result: one byte of flags, {@link #MOVED}, {@link #SHOT} and {@link #DESTROYED}.</li>
+ * <li>Error: error name and message, each as an unsigned 16-bit length and UTF-8 bytes.</li>
+ * <li>Units: version (8), unit count (varint), then per unit in handle order the handle as a delta to
+ * the previous one (varint), type ordinal (1), status ordinal (1), x and y as deltas to the previous
+ * unit (zigzag varint) and command count (varint).</li>
+ * </ul>
+ */
+public final class BinaryProtocol {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-warpol";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public static final int MOVED = 1;
+    public static final int SHOT = 2;
+    public static final int DESTROYED = 4;
+
+    private static final UnitType[] TYPES = UnitType.values();
+    private static final UnitStatus[] STATUSES = UnitStatus.values();
+
+    private BinaryProtocol() {
+    }
+
+    public static byte resultFlags(CommandResultResponse result) {
+        return (byte) ((result.moved() ? MOVED : 0)
+                | (result.shotExecuted() ? SHOT : 0)
+                | (result.unitDestroyed() ? DESTROYED : 0));
+    }
+
+    public static byte[] encodeResult(CommandResultResponse result) {
+        return new byte[]{resultFlags(result)};
+    }
+
+    public static byte[] encodeError(ErrorResponse error) {
+        byte[] name = utf8(error.error());
+        byte[] message = utf8(error.message());
+        return ByteBuffer.allocate(4 + name.length + message.length)
+                .putShort((short) name.length).put(name)
+                .putShort((short) message.length).put(message)
+                .array();
+    }
+
+    public static ErrorResponse decodeError(ByteBuffer buffer) {
+        return new ErrorResponse(readUtf8(buffer), readUtf8(buffer));
+    }
+
+    public static byte[] encodeUnits(long version, List<BinaryUnit> units) {
+        Output out = new Output(16 + units.size() * 8);
+        out.writeLong(version);
+        out.writeVarint(units.size());
+        int handle = 0, x = 0, y = 0;
+        for (BinaryUnit unit : units) {
+            out.writeVarint(unit.handle() - handle);
+            out.writeByte(unit.type().ordinal());
+            out.writeByte(unit.status().ordinal());
+            out.writeZigzag(unit.x() - x);
+            out.writeZigzag(unit.y() - y);
+            out.writeVarint(unit.commandCount());
+            handle = unit.handle();
+            x = unit.x();
+            y = unit.y();
+        }
+        return out.toByteArray();
+    }
+
+    public static List<BinaryUnit> decodeUnits(ByteBuffer buffer) {
+        try {
+            buffer.getLong();
+            int count = readVarint(buffer);
+            List<BinaryUnit> units = new ArrayList<>(count);
+            int handle = 0, x = 0, y = 0;
+            for (int i = 0; i < count; i++) {
+                handle += readVarint(buffer);
+                UnitType type = TYPES[buffer.get()];
+                UnitStatus status = STATUSES[buffer.get()];
+                x += readZigzag(buffer);
+                y += readZigzag(buffer);
+                units.add(new BinaryUnit(handle, type, status, x, y, readVarint(buffer)));
+            }
+            return units;
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Malformed binary unit list", ex);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= 0xFFFF ? bytes : Arrays.copyOf(bytes, 0xFFFF);
+    }
+
+    private static String readUtf8(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int readZigzag(ByteBuffer buffer) {
+        int value = readVarint(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void writeZigzag(int value) {
+            writeVarint((value << 1) ^ (value >> 31));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
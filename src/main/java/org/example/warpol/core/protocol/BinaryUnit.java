@@ -0,0 +1,22 @@
+package org.example.warpol.core.protocol;
+
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+
+/**
+ * A unit as listed in the binary protocol, identified by its handle in the game.
+ */
+public record BinaryUnit(
+        int handle,
+        UnitType type,
+        UnitStatus status,
+        int x,
+        int y,
+        int commandCount
+) {
+    public static BinaryUnit of(int handle, Unit unit) {
+        return new BinaryUnit(handle, unit.getType(), unit.getStatus(),
+                unit.getPositionX(), unit.getPositionY(), unit.getCommandCount());
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.warpol.core.protocol;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.dto.ErrorResponse;
+import org.example.warpol.core.service.GameService;
+import org.example.warpol.exception.GlobalExceptionHandler;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent command stream over a WebSocket. Every binary frame holds one or more requests of a
+ * 4-byte correlation id followed by a {@link BinaryCommand}. Each command is answered by its own
+ * frame as soon as it completes, in any order: the correlation id, the HTTP status the command would
+ * get on {@code /command/execute} (2) and the result or error as encoded by {@link BinaryProtocol}.
+ * A connection that falls too far behind reading its answers is closed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommandStreamHandler extends BinaryWebSocketHandler {
+
+    public static final int REQUEST_SIZE = 4 + BinaryCommand.SIZE;
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int BUFFER_SIZE_LIMIT = 1024 * 1024;
+
+    private final GameService gameService;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        sessions.put(session.getId(), new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_SIZE_LIMIT));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        WebSocketSession sender = sessions.get(session.getId());
+        ByteBuffer payload = message.getPayload();
+        if (payload.remaining() == 0 || payload.remaining() % REQUEST_SIZE != 0) {
+            session.close(CloseStatus.BAD_DATA.withReason("Frames hold requests of " + REQUEST_SIZE + " bytes"));
+            return;
+        }
+        while (payload.hasRemaining()) {
+            int correlationId = payload.getInt();
+            ByteBuffer request = payload.slice(payload.position(), BinaryCommand.SIZE);
+            payload.position(payload.position() + BinaryCommand.SIZE);
+            submit(request).whenComplete((result, ex) -> send(sender, correlationId, result, ex));
+        }
+    }
+
+    private CompletableFuture<CommandResultResponse> submit(ByteBuffer request) {
+        try {
+            BinaryCommand command = BinaryCommand.readFrom(request);
+            return gameService.submitCommand(command.gameId(), command.toRequest(), command.color());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void send(WebSocketSession session, int correlationId, CommandResultResponse result, Throwable failure) {
+        byte[] body;
+        int status;
+        if (failure == null) {
+            body = BinaryProtocol.encodeResult(result);
+            status = 200;
+        } else {
+            ResponseEntity<ErrorResponse> error = exceptionHandler.handle(failure);
+            body = BinaryProtocol.encodeError(error.getBody());
+            status = error.getStatusCode().value();
+        }
+        ByteBuffer frame = ByteBuffer.allocate(6 + body.length)
+                .putInt(correlationId)
+                .putShort((short) status)
+                .put(body)
+                .flip();
+        try {
+            session.sendMessage(new BinaryMessage(frame));
+        } catch (IOException | RuntimeException ex) {
+            log.debug("Could not answer command {} on session {}", correlationId, session.getId(), ex);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.warpol.core.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.dto.ErrorResponse;
+import org.example.warpol.core.dto.ExecuteCommandRequest;
+import org.example.warpol.core.dto.PlayerCommandRequest;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.protocol.BinaryCommand;
+import org.example.warpol.core.protocol.BinaryProtocol;
+import org.example.warpol.core.service.GameService;
+import org.example.warpol.core.service.UnitSnapshotCache;
+import org.example.warpol.exception.GlobalExceptionHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Handlers of the reactive endpoints. They call the same {@link GameService} and
+ * {@link UnitSnapshotCache} as {@code GameController} and map failures through
+ * {@link GlobalExceptionHandler}, so both stacks give the same responses, in JSON or in the
+ * {@link BinaryProtocol} as negotiated. No handler blocks: commands complete on the game's shard and
+ * the response is written from there.
+ * <p>
+ * At most {@code max-in-flight} commands are pending at a time; beyond that a command is answered
+ * with {@code 503} right away instead of queueing on the shards.
+ */
+@Component
+@ConditionalOnProperty(prefix = "game.reactive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveGameHandler {
+
+    private static final ParameterizedTypeReference<PlayerCommandRequest<ExecuteCommandRequest>> EXECUTE_REQUEST =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<PlayerCommandRequest<UUID>> RANDOM_REQUEST =
+            new ParameterizedTypeReference<>() {};
+
+    private final GameService gameService;
+    private final UnitSnapshotCache unitSnapshotCache;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final GameConfig gameConfig;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public Mono<ServerResponse> executeCommand(ServerRequest request) {
+        return readCommand(request)
+                .flatMap(command -> respond(request, () -> gameService.submitCommand(
+                        command.gameId(),
+                        command.command(),
+                        command.playerColor())))
+                .onErrorResume(ex -> error(request, ex));
+    }
+
+    public Mono<ServerResponse> executeRandomCommand(ServerRequest request) {
+        return request.bodyToMono(RANDOM_REQUEST)
+                .flatMap(command -> respond(request, () ->
+                        gameService.submitRandomCommand(command.gameId(), command.playerColor(), command.command())))
+                .onErrorResume(ex -> error(request, ex));
+    }
+
+    public Mono<ServerResponse> getUnits(ServerRequest request) {
+        return Mono.defer(() -> {
+                    UUID gameId = UUID.fromString(request.queryParam("gameId")
+                            .orElseThrow(() -> new IllegalArgumentException("Parameter gameId is required")));
+                    PlayerColor color = PlayerColor.valueOf(request.queryParam("color")
+                            .orElseThrow(() -> new IllegalArgumentException("Parameter color is required")));
+                    return Mono.fromFuture(unitSnapshotCache.getAsync(gameId, color));
+                })
+                .flatMap(snapshot -> {
+                    boolean binary = acceptsBinary(request);
+                    String etag = binary ? snapshot.binaryEtag() : snapshot.etag();
+                    return request.checkNotModified(etag)
+                            .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                                    .eTag(etag)
+                                    .contentType(binary ? BinaryProtocol.MEDIA_TYPE : MediaType.APPLICATION_JSON)
+                                    .bodyValue(binary ? snapshot.binary() : snapshot.json())));
+                })
+                .onErrorResume(ex -> error(request, ex));
+    }
+
+    private Mono<PlayerCommandRequest<ExecuteCommandRequest>> readCommand(ServerRequest request) {
+        if (!request.headers().contentType().filter(BinaryProtocol.MEDIA_TYPE::equalsTypeAndSubtype).isPresent()) {
+            return request.bodyToMono(EXECUTE_REQUEST);
+        }
+        return request.bodyToMono(byte[].class).map(body -> {
+            BinaryCommand command = BinaryCommand.readFrom(ByteBuffer.wrap(body));
+            return new PlayerCommandRequest<>(command.gameId(), command.color(), command.toRequest());
+        });
+    }
+
+    private Mono<ServerResponse> respond(ServerRequest request, Supplier<CompletableFuture<CommandResultResponse>> command) {
+        if (inFlight.incrementAndGet() > gameConfig.getReactive().getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            return error(request, new RejectedExecutionException("Too many commands in flight. Try again."));
+        }
+        return Mono.fromFuture(command)
+                .doFinally(signal -> inFlight.decrementAndGet())
+                .flatMap(result -> acceptsBinary(request)
+                        ? ServerResponse.ok().contentType(BinaryProtocol.MEDIA_TYPE).bodyValue(BinaryProtocol.encodeResult(result))
+                        : ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(result));
+    }
+
+    private Mono<ServerResponse> error(ServerRequest request, Throwable ex) {
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handle(ex);
+        return acceptsBinary(request)
+                ? ServerResponse.status(response.getStatusCode())
+                        .contentType(BinaryProtocol.MEDIA_TYPE)
+                        .bodyValue(BinaryProtocol.encodeError(response.getBody()))
+                : ServerResponse.status(response.getStatusCode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(response.getBody());
+    }
+
+    private static boolean acceptsBinary(ServerRequest request) {
+        return request.headers().accept().stream().anyMatch(BinaryProtocol.MEDIA_TYPE::equalsTypeAndSubtype);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.warpol.core.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.warpol.core.config.GameConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Serves the command and unit endpoints on Reactor Netty next to the servlet container, on
+ * {@code game.reactive.port}. A few event-loop threads, {@code event-loop-threads} or one per core,
+ * handle every connection, so a connection costs a channel rather than a thread.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "game.reactive", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveGameServer {
+
+    private final ReactiveGameHandler handler;
+    private final ObjectMapper objectMapper;
+    private final GameConfig gameConfig;
+
+    private LoopResources loops;
+    private DisposableServer server;
+
+    @PostConstruct
+    public void start() {
+        GameConfig.Reactive config = gameConfig.getReactive();
+        int threads = config.getEventLoopThreads() > 0
+                ? config.getEventLoopThreads()
+                : Runtime.getRuntime().availableProcessors();
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        loops = LoopResources.create("game-reactive", threads, true);
+        server = HttpServer.create()
+                .port(config.getPort())
+                .runOn(loops)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(routes(), strategies)))
+                .bindNow();
+        log.info("Reactive endpoints started on port {} with {} event loop threads", server.port(), threads);
+    }
+
+    RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/api/v1/units", handler::getUnits)
+                .POST("/api/v1/command/execute", handler::executeCommand)
+                .POST("/api/v1/command/random", handler::executeRandomCommand)
+                .build();
+    }
+
+    public int getPort() {
+        return server.port();
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.disposeNow();
+        loops.disposeLater().block();
+    }
+}
@@ -1,11 +1,45 @@
 package org.example.warpol.core.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.warpol.core.dto.CommandHistoryEntry;
 import org.example.warpol.core.entity.CommandEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * History queries read {@link CommandHistoryEntry} projections in (execution time, id) order, so they
+ * are served by the {@code (game_id, execution_time, id)} index and never load units or games.
+ */
 @Repository
 public interface CommandRepository extends JpaRepository<CommandEntity, UUID> {
+
+    String HISTORY = """
+            select new org.example.warpol.core.dto.CommandHistoryEntry(
+                c.id, c.unit.id, c.commandType, c.color, c.targetX, c.targetY,
+                c.executionTime, c.moved, c.shotExecuted, c.unitDestroyed)
+            from CommandEntity c
+            where c.game.id = :gameId
+            """;
+
+    @Query(HISTORY + " order by c.executionTime, c.id")
+    List<CommandHistoryEntry> findHistory(UUID gameId, Pageable page);
+
+    @Query(HISTORY + """
+            and (c.executionTime > :afterTime or (c.executionTime = :afterTime and c.id > :afterId))
+            order by c.executionTime, c.id
+            """)
+    List<CommandHistoryEntry> findHistoryAfter(UUID gameId, LocalDateTime afterTime, UUID afterId, Pageable page);
+
+    @Query(HISTORY + " order by c.executionTime, c.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<CommandHistoryEntry> streamHistory(UUID gameId);
 }
@@ -1,6 +1,5 @@
 package org.example.warpol.core.repository;
 
-import org.example.warpol.core.entity.type.PlayerColor;
 import org.example.warpol.core.entity.unit.Unit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -8,10 +7,13 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Units are read from the database only when a game is loaded, all units of the game at once, which
+ * is served by the {@code (game_id, handle)} unique index. Running games answer every other lookup
+ * from memory.
+ */
 @Repository
 public interface UnitRepository extends JpaRepository<Unit, UUID> {
 
-    List<Unit> findByGameIdAndColor(UUID gameId, PlayerColor color);
-
-    List<Unit> findAllByGameIdAndPositionXAndPositionY(UUID id, int targetX, int targetY);
+    List<Unit> findAllByGameId(UUID gameId);
 }
@@ -0,0 +1,122 @@
+package org.example.warpol.core.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.warpol.core.dto.CommandHistoryEntry;
+import org.example.warpol.core.dto.CommandHistoryPage;
+import org.example.warpol.core.repository.CommandRepository;
+import org.example.warpol.core.repository.GameRepository;
+import org.example.warpol.exception.GameNotFoundException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Reads the stored commands of a game in execution order, either page by page with a keyset cursor
+ * or as one NDJSON stream over a database cursor. Neither holds more than a page or a fetch of
+ * commands in memory. Commands reach the database with the write-behind flush, and not at all
+ * while the journal is enabled.
+ */
+@Service
+public class CommandHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final CommandRepository commandRepository;
+    private final GameRepository gameRepository;
+    private final ObjectWriter lineWriter;
+
+    public CommandHistoryService(CommandRepository commandRepository, GameRepository gameRepository, ObjectMapper objectMapper) {
+        this.commandRepository = commandRepository;
+        this.gameRepository = gameRepository;
+        this.lineWriter = objectMapper.writerFor(CommandHistoryEntry.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public CommandHistoryPage getPage(UUID gameId, String after, int limit) {
+        requireGame(gameId);
+        PageRequest page = PageRequest.of(0, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+        List<CommandHistoryEntry> commands;
+        if (after == null || after.isEmpty()) {
+            commands = commandRepository.findHistory(gameId, page);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            commands = commandRepository.findHistoryAfter(gameId, cursor.executionTime(), cursor.id(), page);
+        }
+        String next = commands.size() < page.getPageSize() ? null
+                : Cursor.of(commands.get(commands.size() - 1)).encode();
+        return new CommandHistoryPage(commands, next);
+    }
+
+    /**
+     * Writes every command of the game as one JSON object per line. Runs in a read-only transaction
+     * that keeps the database cursor open until the last line is written.
+     */
+    @Transactional(readOnly = true)
+    public void export(UUID gameId, OutputStream out) {
+        requireGame(gameId);
+        OutputStream buffered = new BufferedOutputStream(out);
+        try (Stream<CommandHistoryEntry> commands = commandRepository.streamHistory(gameId)) {
+            commands.forEach(command -> {
+                try {
+                    lineWriter.writeValue(buffered, command);
+                    buffered.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            buffered.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void requireGame(UUID gameId) {
+        if (!gameRepository.existsById(gameId)) {
+            throw new GameNotFoundException("Game " + gameId + " not found");
+        }
+    }
+
+    /**
+     * Position after the last command of a page, opaque to clients.
+     */
+    record Cursor(LocalDateTime executionTime, UUID id) {
+
+        static Cursor of(CommandHistoryEntry command) {
+            return new Cursor(command.executionTime(), command.id());
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        UUID.fromString(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid history cursor: " + value, ex);
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((executionTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -2,121 +2,391 @@ package org.example.warpol.core.service;
 
 import lombok.RequiredArgsConstructor;
 import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.dto.BatchCommandResult;
+import org.example.warpol.core.dto.BulkCommandResult;
 import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.dto.ExecuteCommandRequest;
+import org.example.warpol.core.dto.UnitResponse;
+import org.example.warpol.core.engine.EpochNanos;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.SpawnPlacer;
+import org.example.warpol.core.engine.UnitAdmission;
+import org.example.warpol.core.engine.UnitStore;
 import org.example.warpol.core.entity.CommandEntity;
-import org.example.warpol.core.repository.CommandRepository;
 import org.example.warpol.core.repository.GameRepository;
 import org.example.warpol.core.repository.UnitRepository;
 import org.example.warpol.core.entity.GameEntity;
 import org.example.warpol.core.entity.type.CommandType;
 import org.example.warpol.core.entity.type.PlayerColor;
-import org.example.warpol.core.entity.type.UnitStatus;
 import org.example.warpol.core.entity.type.UnitType;
-import org.example.warpol.core.entity.unit.ArcherEntity;
-import org.example.warpol.core.entity.unit.CannonEntity;
-import org.example.warpol.core.entity.unit.TransportEntity;
 import org.example.warpol.core.entity.unit.Unit;
-import org.example.warpol.exception.CooldownNotElapsedException;
+import org.example.warpol.core.journal.CommandJournal;
+import org.example.warpol.core.journal.ReplayedUnit;
+import org.example.warpol.core.metrics.GameMetrics;
 import org.example.warpol.exception.GameNotFoundException;
+import org.example.warpol.exception.InvalidUnitCommandException;
 import org.example.warpol.exception.UnauthorizedUnitAccessException;
+import org.example.warpol.exception.UnitNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 @Service
 @RequiredArgsConstructor
 public class GameService {
 
+    private static final int MOVED = 1;
+    private static final int SHOT = 2;
+    private static final int DESTROYED = 4;
+
     private final UnitRepository unitRepository;
     private final GameRepository gameRepository;
-    private final CommandRepository commandRepository;
     private final GameConfig gameConfig;
-    private final Random random;
     private final RandomCommandHelper commandHelper;
+    private final GameEngine gameEngine;
+    private final Optional<CommandJournal> commandJournal;
+    private final GameMetrics gameMetrics;
+
+    @Transactional
+    public GameEntity createNewGameFromConfig() {
+        return createNewGameFromConfig(ThreadLocalRandom.current().nextLong());
+    }
 
     @Transactional
-    public void createNewGameFromConfig() {
+    public GameEntity createNewGameFromConfig(long seed) {
         Map<UnitType, Integer> unitsConfig = Map.of(
                 UnitType.ARCHER, gameConfig.getUnits().getArcher(),
                 UnitType.CANNON, gameConfig.getUnits().getCannon(),
                 UnitType.TRANSPORT, gameConfig.getUnits().getTransport()
         );
-        createNewGame(unitsConfig, gameConfig.getBoard().getWidth(), gameConfig.getBoard().getHeight());
+        return createNewGame(unitsConfig, gameConfig.getBoard().getWidth(), gameConfig.getBoard().getHeight(), seed);
     }
 
     @Transactional
-    public void createNewGame(Map<UnitType, Integer> unitsConfig, int boardWidth, int boardHeight) {
-        gameRepository.findAll().forEach(g -> {
-            g.setActive(false);
-            gameRepository.save(g);
-        });
+    public GameEntity createNewGame(Map<UnitType, Integer> unitsConfig, int boardWidth, int boardHeight) {
+        return createNewGame(unitsConfig, boardWidth, boardHeight, ThreadLocalRandom.current().nextLong());
+    }
+
+    @Transactional
+    public GameEntity createNewGame(Map<UnitType, Integer> unitsConfig, int boardWidth, int boardHeight, long seed) {
         GameEntity game = new GameEntity();
         game.setWidth(boardWidth);
         game.setHeight(boardHeight);
         game.setActive(true);
+        game.setSeed(seed);
         game = gameRepository.save(game);
 
-        Set<String> occupiedPositions = new HashSet<>();
-
-        for (PlayerColor color : PlayerColor.values()) {
-            for (Map.Entry<UnitType, Integer> entry : unitsConfig.entrySet()) {
-                for (int i = 0; i < entry.getValue(); i++) {
-                    Unit unit = switch (entry.getKey()) {
-                        case ARCHER -> new ArcherEntity();
-                        case TRANSPORT -> new TransportEntity();
-                        case CANNON -> new CannonEntity();
-                    };
-
-                    unit.setColor(color);
-                    unit.setType(entry.getKey());
-                    unit.setStatus(UnitStatus.ACTIVE);
-
-                    int x, y;
-                    String key;
-                    do {
-                        x = random.nextInt(boardWidth);
-                        y = random.nextInt(boardHeight);
-                        key = x + ":" + y;
-                    } while (!occupiedPositions.add(key));
-
-                    unit.setPositionX(x);
-                    unit.setPositionY(y);
-                    unit.setGame(game);
-                    unitRepository.save(unit);
-                }
+        List<Unit> units = SpawnPlacer.spawn(game, unitsConfig, new SplittableRandom(seed));
+
+        List<Unit> saved = unitRepository.saveAll(units);
+        GameState state = new GameState(game, saved);
+        afterCommit(() -> {
+            commandJournal.ifPresent(journal -> journal.appendSpawns(saved));
+            gameEngine.register(state);
+        });
+        return game;
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, so neither the journal nor the
+     * engine sees a game that is rolled back. Runs it right away when there is no transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
             }
+        });
+    }
+
+    public List<UnitResponse> getUnits(UUID gameId, PlayerColor color) {
+        return gameEngine.execute(gameId, state -> state.unitsByColor(color).stream()
+                .map(UnitResponse::from)
+                .toList());
+    }
+
+    /**
+     * Units of one color as they were at the given time, rebuilt from the journal.
+     */
+    public List<UnitResponse> getUnitsAt(UUID gameId, PlayerColor color, Instant at) {
+        CommandJournal journal = commandJournal.orElseThrow(() ->
+                new GameNotFoundException("No history is kept for game " + gameId + " while the journal is disabled"));
+        Map<UUID, ReplayedUnit> units = journal.rebuild(gameId, EpochNanos.of(at));
+        if (units.isEmpty()) {
+            throw new GameNotFoundException("No history of game " + gameId + " at " + at);
         }
+        return units.values().stream()
+                .filter(unit -> unit.color() == color)
+                .map(UnitResponse::from)
+                .toList();
     }
 
-    @Transactional(readOnly = true)
-    public List<Unit> getUnits(PlayerColor color) {
-        GameEntity game = gameRepository.findByIsActiveTrue()
-                .orElseThrow(() -> new GameNotFoundException("No active game found"));
+    public List<UnitResponse> getUnitsInArea(UUID gameId, int minX, int minY, int maxX, int maxY, PlayerColor color) {
+        return gameEngine.execute(gameId, state -> toResponses(state.unitsInArea(minX, minY, maxX, maxY), color));
+    }
 
-        return unitRepository.findByGameIdAndColor(game.getId(), color);
+    public List<UnitResponse> getUnitsInRadius(UUID gameId, int x, int y, int radius, PlayerColor color) {
+        return gameEngine.execute(gameId, state -> toResponses(state.unitsInRadius(x, y, radius), color));
     }
 
-    @Transactional
-    public CommandResultResponse executeCommand(UUID unitId, CommandType commandType,
+    public List<UnitResponse> getLineOfFire(UUID gameId, UUID unitId, PlayerColor playerColor) {
+        return gameEngine.execute(gameId, state -> {
+            Unit unit = state.findUnit(unitId)
+                    .orElseThrow(() -> new UnitNotFoundException("Unit not found"));
+            if (unit.getColor() != playerColor) {
+                throw new UnauthorizedUnitAccessException("Unauthorized access to unit");
+            }
+            return toResponses(state.lineOfFire(unit), null);
+        });
+    }
+
+    private static List<UnitResponse> toResponses(List<Unit> units, PlayerColor color) {
+        return units.stream()
+                .filter(unit -> color == null || unit.getColor() == color)
+                .map(UnitResponse::from)
+                .toList();
+    }
+
+    /**
+     * Id of the unit with the given handle in a loaded game, for clients that address units by handle.
+     */
+    public UUID unitId(UUID gameId, int handle) {
+        return gameEngine.admission(gameId).unitId(handle);
+    }
+
+    public CommandResultResponse executeCommand(UUID gameId, UUID unitId, CommandType commandType,
                                                 int targetX, int targetY,
                                                 PlayerColor playerColor) {
-        Unit unit = unitRepository.findById(unitId)
-                .orElseThrow(() -> new RuntimeException("Unit not found"));
+        return GameEngine.await(submitCommand(gameId, unitId, commandType, targetX, targetY, playerColor));
+    }
 
-        if (!unit.getColor().equals(playerColor)) {
-            throw new UnauthorizedUnitAccessException("Unauthorized access to unit");
+    public CompletableFuture<CommandResultResponse> submitCommand(UUID gameId, ExecuteCommandRequest command,
+                                                                  PlayerColor playerColor) {
+        return submitCommand(gameId, unitId(gameEngine.admission(gameId), command), command.commandType(),
+                command.targetX(), command.targetY(), playerColor);
+    }
+
+    public CompletableFuture<CommandResultResponse> submitCommand(UUID gameId, UUID unitId, CommandType commandType,
+                                                                  int targetX, int targetY,
+                                                                  PlayerColor playerColor) {
+        if (isTicking()) {
+            return gameEngine.enqueue(gameId, state ->
+                    admitAndResolve(state, unitId, commandType, targetX, targetY, playerColor));
         }
+        long startNanos = System.nanoTime();
+        UnitAdmission admission = gameEngine.admission(gameId);
+        UnitAdmission.Reservation reservation = admit(admission, unitId, commandType, playerColor, EpochNanos.now(), startNanos);
+        return releaseOnFailure(admission, reservation, () -> gameEngine.submit(gameId, state ->
+                        resolveCommand(state, unitId, commandType, targetX, targetY, reservation, startNanos)))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        admission.release(reservation);
+                    }
+                });
+    }
+
+    public CommandResultResponse executeRandomCommand(UUID gameId, PlayerColor playerColor, UUID unitId) {
+        return GameEngine.await(submitRandomCommand(gameId, playerColor, unitId));
+    }
+
+    public CompletableFuture<CommandResultResponse> submitRandomCommand(UUID gameId, PlayerColor playerColor, UUID unitId) {
+        return dispatch(gameId, state -> {
+            Unit unit = state.findUnit(unitId)
+                    .orElseThrow(() -> new UnitNotFoundException("Unit not found"));
 
-        if (!unit.isCooldownElapsed(commandType)) {
-            throw new CooldownNotElapsedException("Cooldown not elapsed for " + commandType);
+            CommandType type = commandHelper.getRandomCommandForUnit(unit, state.getRandom());
+
+            long target = commandHelper.getRandomPackedTargetFor(unit, type, state.getGame().getWidth(), state.getGame().getHeight(), state.getRandom());
+
+            return admitAndResolve(state, unitId, type, RandomCommandHelper.targetX(target), RandomCommandHelper.targetY(target), playerColor);
+        });
+    }
+
+    public BulkCommandResult executeRandomCommands(UUID gameId, PlayerColor playerColor) {
+        return GameEngine.await(submitRandomCommands(gameId, playerColor));
+    }
+
+    /**
+     * Issues a random command for every active unit of the player in one pass on the game's shard.
+     * The units are found with a scan of the game's {@link UnitStore}; commands are generated,
+     * validated and admitted without throwing, and only the admitted ones are resolved and recorded.
+     */
+    public CompletableFuture<BulkCommandResult> submitRandomCommands(UUID gameId, PlayerColor playerColor) {
+        return dispatch(gameId, state -> {
+            UnitAdmission admission = state.getAdmission();
+            RandomGenerator random = state.getRandom();
+            int width = state.getGame().getWidth();
+            int height = state.getGame().getHeight();
+            long nowNanos = state.nowNanos();
+            int[] slots = new int[state.getStore().size()];
+            int issued = state.getStore().activeOfColor(playerColor, slots);
+            int executed = 0, destroyed = 0;
+            for (int i = 0; i < issued; i++) {
+                Unit unit = state.unitInSlot(slots[i]);
+                long startNanos = System.nanoTime();
+                CommandType type = commandHelper.getRandomCommandForUnit(unit, random);
+                long target = commandHelper.getRandomPackedTargetFor(unit, type, width, height, random);
+                int targetX = RandomCommandHelper.targetX(target);
+                int targetY = RandomCommandHelper.targetY(target);
+                if (!commandHelper.isValid(unit, type, targetX, targetY)) {
+                    continue;
+                }
+                UnitAdmission.Reservation reservation = admission.tryReserve(unit.getId(), type, playerColor, nowNanos);
+                if (reservation == null) {
+                    continue;
+                }
+                int outcome;
+                try {
+                    outcome = resolveMeasured(state, unit.getId(), type, targetX, targetY, reservation, startNanos);
+                } catch (RuntimeException ex) {
+                    admission.release(reservation);
+                    continue;
+                }
+                executed++;
+                if ((outcome & DESTROYED) != 0) {
+                    destroyed++;
+                }
+            }
+            return new BulkCommandResult(issued, executed, issued - executed, destroyed);
+        });
+    }
+
+    public List<BatchCommandResult> executeCommands(UUID gameId, PlayerColor playerColor,
+                                                    List<ExecuteCommandRequest> commands) {
+        return GameEngine.await(submitCommands(gameId, playerColor, commands));
+    }
+
+    public CompletableFuture<List<BatchCommandResult>> submitCommands(UUID gameId, PlayerColor playerColor,
+                                                                      List<ExecuteCommandRequest> commands) {
+        return dispatch(gameId, state -> {
+            List<BatchCommandResult> results = new ArrayList<>(commands.size());
+            for (int i = 0; i < commands.size(); i++) {
+                ExecuteCommandRequest command = commands.get(i);
+                try {
+                    results.add(BatchCommandResult.success(i, admitAndResolve(state, unitId(state.getAdmission(), command),
+                            command.commandType(), command.targetX(), command.targetY(), playerColor)));
+                } catch (RuntimeException ex) {
+                    results.add(BatchCommandResult.failure(i, ex));
+                }
+            }
+            return results;
+        });
+    }
+
+    private static UUID unitId(UnitAdmission admission, ExecuteCommandRequest command) {
+        if (command.unitId() != null) {
+            return command.unitId();
+        }
+        if (command.unitHandle() == null) {
+            throw new IllegalArgumentException("Either unitId or unitHandle is required");
+        }
+        return admission.unitId(command.unitHandle());
+    }
+
+    private boolean isTicking() {
+        return gameConfig.getTick().isEnabled();
+    }
+
+    private <T> CompletableFuture<T> dispatch(UUID gameId, Function<GameState, T> action) {
+        return isTicking() ? gameEngine.enqueue(gameId, action) : gameEngine.submit(gameId, action);
+    }
+
+    private CommandResultResponse admitAndResolve(GameState state, UUID unitId, CommandType commandType,
+                                                  int targetX, int targetY,
+                                                  PlayerColor playerColor) {
+        long startNanos = System.nanoTime();
+        UnitAdmission admission = state.getAdmission();
+        UnitAdmission.Reservation reservation = admit(admission, unitId, commandType, playerColor, state.nowNanos(), startNanos);
+        return releaseOnFailure(admission, reservation, () ->
+                resolveCommand(state, unitId, commandType, targetX, targetY, reservation, startNanos));
+    }
+
+    private UnitAdmission.Reservation admit(UnitAdmission admission, UUID unitId, CommandType commandType,
+                                            PlayerColor playerColor, long nowNanos, long startNanos) {
+        try {
+            UnitAdmission.Reservation reservation = admission.reserve(unitId, commandType, playerColor, nowNanos);
+            gameMetrics.phase(GameMetrics.Phase.ADMISSION, commandType, admission.unitType(unitId), startNanos);
+            return reservation;
+        } catch (RuntimeException ex) {
+            gameMetrics.commandFailed(commandType, admission.unitType(unitId), ex, startNanos);
+            throw ex;
         }
+    }
 
-        List<Unit> atTarget = unitRepository.findAllByGameIdAndPositionXAndPositionY(
-                unit.getGame().getId(), targetX, targetY);
+    private <T> T releaseOnFailure(UnitAdmission admission, UnitAdmission.Reservation reservation, Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (RuntimeException ex) {
+            admission.release(reservation);
+            throw ex;
+        }
+    }
+
+    private CommandResultResponse resolveCommand(GameState state, UUID unitId, CommandType commandType,
+                                                 int targetX, int targetY,
+                                                 UnitAdmission.Reservation reservation, long startNanos) {
+        int outcome = resolveMeasured(state, unitId, commandType, targetX, targetY, reservation, startNanos);
+        boolean moved = (outcome & MOVED) != 0;
+        String res = commandType == CommandType.SHOOT
+                ? "Unit shot to (" + targetX + "," + targetY + ")"
+                : moved ? "Unit moved to (" + targetX + "," + targetY + ")"
+                : "Unit stayed in place";
+        return new CommandResultResponse(res, (outcome & DESTROYED) != 0, moved, (outcome & SHOT) != 0);
+    }
+
+    private int resolveMeasured(GameState state, UUID unitId, CommandType commandType,
+                                int targetX, int targetY,
+                                UnitAdmission.Reservation reservation, long startNanos) {
+        UnitType unitType = state.getAdmission().unitType(unitId);
+        try {
+            int outcome = resolve(state, unitId, commandType, targetX, targetY, reservation);
+            gameMetrics.commandSucceeded(commandType, unitType, startNanos);
+            return outcome;
+        } catch (RuntimeException ex) {
+            gameMetrics.commandFailed(commandType, unitType, ex, startNanos);
+            throw ex;
+        }
+    }
+
+    /**
+     * Applies an admitted command to the game and returns its outcome as {@link #MOVED},
+     * {@link #SHOT} and {@link #DESTROYED} flags.
+     */
+    private int resolve(GameState state, UUID unitId, CommandType commandType,
+                        int targetX, int targetY,
+                        UnitAdmission.Reservation reservation) {
+        long phaseNanos = System.nanoTime();
+        if (state.isFinished()) {
+            throw new GameNotFoundException("Game " + state.getGameId() + " is finished");
+        }
+        Unit unit = state.findUnit(unitId)
+                .orElseThrow(() -> new UnitNotFoundException("Unit not found"));
+        UnitType unitType = unit.getType();
+
+        if (!state.isOnBoard(targetX, targetY)) {
+            throw new InvalidUnitCommandException("Target (" + targetX + "," + targetY + ") is outside of the board");
+        }
+
+        List<Unit> atTarget = state.unitsAt(targetX, targetY);
+        phaseNanos = gameMetrics.phase(GameMetrics.Phase.LOOKUP, commandType, unitType, phaseNanos);
 
         boolean valid = commandHelper.isValid(unit, commandType, targetX, targetY);
+        phaseNanos = gameMetrics.phase(GameMetrics.Phase.VALIDATION, commandType, unitType, phaseNanos);
 
         if (!valid) {
             throw new RuntimeException("Invalid command for unit type");
@@ -128,42 +398,31 @@ public class GameService {
             case MOVE -> {
                 boolean friendly = commandHelper.hasFriendly(unit, atTarget);
                 if (friendly) {
-                    unit.setLastCommandTime(LocalDateTime.now());
-                    unitRepository.save(unit);
+                    unit.setLastCommandTime(reservation.reservedTime());
+                    state.markDirty(unit);
                     break;
                 }
-                destroyed = commandHelper.destroyEnemies(atTarget, unitRepository);
+                destroyed = commandHelper.destroyEnemies(atTarget, state);
                 unit.move(targetX, targetY);
                 moved = true;
             }
             case SHOOT -> {
-                destroyed = commandHelper.destroyEnemies(atTarget, unitRepository);
+                destroyed = commandHelper.destroyEnemies(atTarget, state);
                 shot = true;
             }
         }
+        phaseNanos = gameMetrics.phase(GameMetrics.Phase.DESTROY, commandType, unitType, phaseNanos);
 
         CommandEntity cmd = commandHelper.buildCommand(unit, commandType, targetX, targetY);
-        commandRepository.save(cmd);
-
-        unit.setLastCommandTime(LocalDateTime.now());
-        unitRepository.save(unit);
-
-        String res = commandType == CommandType.SHOOT
-                ? "Unit shot to (" + targetX + "," + targetY + ")"
-                : moved ? "Unit moved to (" + targetX + "," + targetY + ")"
-                : "Unit stayed in place";
-        return new CommandResultResponse(res, destroyed, moved, shot);
-    }
-
-    @Transactional
-    public CommandResultResponse executeRandomCommand(PlayerColor playerColor, UUID unitId) {
-        Unit unit = unitRepository.findById(unitId)
-                .orElseThrow(() -> new RuntimeException("Unit not found"));
-
-        CommandType type = commandHelper.getRandomCommandForUnit(unit, random);
+        cmd.setMoved(moved);
+        cmd.setShotExecuted(shot);
+        cmd.setUnitDestroyed(destroyed);
+        state.recordCommand(cmd);
 
-        int[] target = commandHelper.getRandomTargetFor(unit, type, unit.getGame().getWidth(), unit.getGame().getHeight(), random);
+        unit.setLastCommandTime(reservation.reservedTime());
+        state.markDirty(unit);
+        gameMetrics.phase(GameMetrics.Phase.RECORD, commandType, unitType, phaseNanos);
 
-        return executeCommand(unitId, type, target[0], target[1], playerColor);
+        return (moved ? MOVED : 0) | (shot ? SHOT : 0) | (destroyed ? DESTROYED : 0);
     }
 }
@@ -1,35 +1,46 @@
 package org.example.warpol.core.service;
 
+import org.example.warpol.core.engine.GameState;
 import org.example.warpol.core.entity.CommandEntity;
 import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.UnitType;
 import org.example.warpol.core.entity.unit.Unit;
-import org.example.warpol.core.repository.UnitRepository;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 @Component
 public class RandomCommandHelper {
 
-    public CommandType getRandomCommandForUnit(Unit unit, Random random) {
-        List<CommandType> possible = new ArrayList<>();
-        switch (unit.getType()) {
-            case TRANSPORT -> possible.add(CommandType.MOVE);
-            case ARCHER -> {
-                possible.add(CommandType.MOVE);
-                possible.add(CommandType.SHOOT);
-            }
-            case CANNON -> possible.add(CommandType.SHOOT);
-        }
-        return possible.get(random.nextInt(possible.size()));
+    private static final CommandType[][] COMMANDS = new CommandType[UnitType.values().length][];
+
+    static {
+        COMMANDS[UnitType.TRANSPORT.ordinal()] = new CommandType[]{CommandType.MOVE};
+        COMMANDS[UnitType.ARCHER.ordinal()] = new CommandType[]{CommandType.MOVE, CommandType.SHOOT};
+        COMMANDS[UnitType.CANNON.ordinal()] = new CommandType[]{CommandType.SHOOT};
+    }
+
+    public CommandType getRandomCommandForUnit(Unit unit, RandomGenerator random) {
+        CommandType[] possible = COMMANDS[unit.getType().ordinal()];
+        return possible[random.nextInt(possible.length)];
     }
 
     public int[] getRandomTargetFor(Unit unit, CommandType type,
                                     int boardWidth, int boardHeight,
-                                    Random random) {
+                                    RandomGenerator random) {
+        long target = getRandomPackedTargetFor(unit, type, boardWidth, boardHeight, random);
+        return new int[]{targetX(target), targetY(target)};
+    }
+
+    /**
+     * Allocation-free variant of {@link #getRandomTargetFor}, returning the target packed
+     * by {@link #packTarget}.
+     */
+    public long getRandomPackedTargetFor(Unit unit, CommandType type,
+                                         int boardWidth, int boardHeight,
+                                         RandomGenerator random) {
         int x = unit.getPositionX();
         int y = unit.getPositionY();
         switch (unit.getType()) {
@@ -64,7 +75,19 @@ public class RandomCommandHelper {
         }
         x = clamp(x, 0, boardWidth - 1);
         y = clamp(y, 0, boardHeight - 1);
-        return new int[]{x, y};
+        return packTarget(x, y);
+    }
+
+    public static long packTarget(int x, int y) {
+        return (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    public static int targetX(long target) {
+        return (int) (target >>> 32);
+    }
+
+    public static int targetY(long target) {
+        return (int) target;
     }
 
     public boolean isValid(Unit unit, CommandType commandType,
@@ -88,17 +111,21 @@ public class RandomCommandHelper {
     }
 
     public boolean hasFriendly(Unit unit, List<Unit> unitsAtTarget) {
-        return unitsAtTarget.stream()
-                .anyMatch(u -> u.getColor() == unit.getColor());
+        for (Unit u : unitsAtTarget) {
+            if (u.getColor() == unit.getColor()) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    public boolean destroyEnemies(List<Unit> unitsAtTarget, UnitRepository repo) {
+    public boolean destroyEnemies(List<Unit> unitsAtTarget, GameState state) {
         if (unitsAtTarget.isEmpty()) {
             return false;
         }
         for (Unit u : unitsAtTarget) {
             u.destroy();
-            repo.save(u);
+            state.markDirty(u);
         }
         return true;
     }
@@ -0,0 +1,94 @@
+package org.example.warpol.core.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.warpol.core.dto.UnitResponse;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.protocol.BinaryProtocol;
+import org.example.warpol.core.protocol.BinaryUnit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Serialized unit lists per game and color, as JSON and in the {@link BinaryProtocol}, kept until the
+ * units of that color change. A request for an unchanged board only compares versions and never
+ * reaches the game's shard. Only loaded games are cached, and a game's snapshots are dropped when it
+ * is unloaded.
+ */
+@Component
+public class UnitSnapshotCache {
+
+    private final GameEngine gameEngine;
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, AtomicReferenceArray<Snapshot>> snapshots = new ConcurrentHashMap<>();
+
+    public UnitSnapshotCache(GameEngine gameEngine, ObjectMapper objectMapper) {
+        this.gameEngine = gameEngine;
+        this.objectMapper = objectMapper;
+        gameEngine.addUnloadListener(snapshots::remove);
+    }
+
+    public Snapshot get(UUID gameId, PlayerColor color) {
+        return GameEngine.await(getAsync(gameId, color));
+    }
+
+    /**
+     * Like {@link #get} but without blocking: a cached snapshot is returned completed, a changed one
+     * completes once the game's shard has listed the units.
+     */
+    public CompletableFuture<Snapshot> getAsync(UUID gameId, PlayerColor color) {
+        long version = gameEngine.unitsVersion(gameId, color);
+        AtomicReferenceArray<Snapshot> game = snapshots.computeIfAbsent(gameId,
+                id -> new AtomicReferenceArray<>(PlayerColor.values().length));
+        Snapshot cached = game.get(color.ordinal());
+        if (cached != null && cached.version() == version) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return gameEngine.submit(gameId, state -> {
+                    List<Unit> units = state.unitsByColor(color);
+                    List<UnitResponse> responses = new ArrayList<>(units.size());
+                    List<BinaryUnit> slotted = new ArrayList<>(units.size());
+                    for (Unit unit : units) {
+                        responses.add(UnitResponse.from(unit));
+                        slotted.add(BinaryUnit.of(state.slotOf(unit), unit));
+                    }
+                    return new Units(state.getUnitsVersion(color), responses, slotted);
+                })
+                .thenApply(units -> {
+                    Snapshot snapshot = new Snapshot(units.version(), serialize(units.units()),
+                            BinaryProtocol.encodeUnits(units.version(), units.slotted()));
+                    game.set(color.ordinal(), snapshot);
+                    return snapshot;
+                });
+    }
+
+    private byte[] serialize(List<UnitResponse> units) {
+        try {
+            return objectMapper.writeValueAsBytes(units);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize units", ex);
+        }
+    }
+
+    public record Snapshot(long version, byte[] json, byte[] binary) {
+        public String etag() {
+            return "\"" + Long.toHexString(version) + "\"";
+        }
+
+        public String binaryEtag() {
+            return "\"" + Long.toHexString(version) + "-b\"";
+        }
+    }
+
+    private record Units(long version, List<UnitResponse> units, List<BinaryUnit> slotted) {
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.warpol.core.simulation;
+
+import lombok.RequiredArgsConstructor;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Attacks whenever an enemy is in reach and falls back to another strategy otherwise. Archers
+ * shoot the first enemy in their line of fire, cannons the first active enemy on the board and
+ * transports drive onto an enemy in their row or column at most three cells away.
+ */
+@RequiredArgsConstructor
+public class GreedyStrategy implements Strategy {
+
+    private static final int TRANSPORT_RANGE = 3;
+
+    private final Strategy fallback;
+
+    @Override
+    public Order order(Unit unit, GameState state, RandomGenerator random) {
+        Unit target = switch (unit.getType()) {
+            case ARCHER -> enemyInLineOfFire(unit, state, Integer.MAX_VALUE);
+            case TRANSPORT -> enemyInLineOfFire(unit, state, TRANSPORT_RANGE);
+            case CANNON -> anyEnemy(unit, state);
+        };
+        if (target == null) {
+            return fallback.order(unit, state, random);
+        }
+        CommandType type = unit.getType() == UnitType.TRANSPORT
+                ? CommandType.MOVE : CommandType.SHOOT;
+        return new Order(type, target.getPositionX(), target.getPositionY());
+    }
+
+    private Unit enemyInLineOfFire(Unit unit, GameState state, int range) {
+        for (Unit other : state.lineOfFire(unit)) {
+            int distance = Math.abs(other.getPositionX() - unit.getPositionX())
+                    + Math.abs(other.getPositionY() - unit.getPositionY());
+            if (other.getColor() != unit.getColor() && distance <= range) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    private Unit anyEnemy(Unit unit, GameState state) {
+        int slot = state.getStore().firstActiveEnemy(unit.getColor());
+        return slot < 0 ? null : state.unitInSlot(slot);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.warpol.core.simulation;
+
+import org.example.warpol.core.entity.type.PlayerColor;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one simulated game. {@code winner} is {@code null} for a draw.
+ */
+public record MatchResult(
+        long seed,
+        PlayerColor winner,
+        int steps,
+        Duration length,
+        long commandsExecuted,
+        long commandsRejected
+) {
+}
@@ -0,0 +1,46 @@
+package org.example.warpol.core.simulation;
+
+import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Board, armies and strategies of a simulated game. Simulated time advances by {@code step}
+ * and a game still undecided after {@code maxSteps} steps is a draw.
+ */
+public record MatchSetup(
+        Map<UnitType, Integer> units,
+        int width,
+        int height,
+        Strategy white,
+        Strategy black,
+        Duration step,
+        int maxSteps
+) {
+    public static final Duration DEFAULT_STEP = Duration.ofSeconds(1);
+    public static final int DEFAULT_MAX_STEPS = 10_000;
+
+    public MatchSetup {
+        if (step.isNegative() || step.isZero()) {
+            throw new IllegalArgumentException("Simulation step must be positive");
+        }
+        units = Map.copyOf(units);
+    }
+
+    public static MatchSetup fromConfig(GameConfig gameConfig, Strategy white, Strategy black) {
+        Map<UnitType, Integer> units = Map.of(
+                UnitType.ARCHER, gameConfig.getUnits().getArcher(),
+                UnitType.CANNON, gameConfig.getUnits().getCannon(),
+                UnitType.TRANSPORT, gameConfig.getUnits().getTransport()
+        );
+        return new MatchSetup(units, gameConfig.getBoard().getWidth(), gameConfig.getBoard().getHeight(),
+                white, black, DEFAULT_STEP, DEFAULT_MAX_STEPS);
+    }
+
+    public Strategy strategy(PlayerColor color) {
+        return color == PlayerColor.WHITE ? white : black;
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.warpol.core.simulation;
+
+import org.example.warpol.core.entity.type.CommandType;
+
+public record Order(
+        CommandType type,
+        int targetX,
+        int targetY
+) {
+}
@@ -0,0 +1,27 @@
+package org.example.warpol.core.simulation;
+
+import lombok.RequiredArgsConstructor;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.service.RandomCommandHelper;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays like {@code POST /command/random}: a random command of the unit's type towards a random
+ * target, valid or not.
+ */
+@RequiredArgsConstructor
+public class RandomStrategy implements Strategy {
+
+    private final RandomCommandHelper commandHelper;
+
+    @Override
+    public Order order(Unit unit, GameState state, RandomGenerator random) {
+        CommandType type = commandHelper.getRandomCommandForUnit(unit, random);
+        long target = commandHelper.getRandomPackedTargetFor(unit, type,
+                state.getGame().getWidth(), state.getGame().getHeight(), random);
+        return new Order(type, RandomCommandHelper.targetX(target), RandomCommandHelper.targetY(target));
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.warpol.core.simulation;
+
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.service.RandomCommandHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs a batch of simulated games from the command line and prints the report, without starting
+ * the application. Options are given as {@code --name=value}, see {@link #main}.
+ */
+public final class SimulationMain {
+
+    private SimulationMain() {
+    }
+
+    /**
+     * Options: {@code games} (1000), {@code seed} (1), {@code white} and {@code black}
+     * ({@code random} or {@code greedy}), {@code width} and {@code height} (8), {@code archer} (4),
+     * {@code cannon} (2), {@code transport} (2), {@code max-steps} (10000) and {@code threads}
+     * (all processors).
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        RandomCommandHelper commandHelper = new RandomCommandHelper();
+        Map<UnitType, Integer> units = Map.of(
+                UnitType.ARCHER, intOption(options, "archer", 4),
+                UnitType.CANNON, intOption(options, "cannon", 2),
+                UnitType.TRANSPORT, intOption(options, "transport", 2)
+        );
+        MatchSetup setup = new MatchSetup(units,
+                intOption(options, "width", 8), intOption(options, "height", 8),
+                strategy(options.getOrDefault("white", "random"), commandHelper),
+                strategy(options.getOrDefault("black", "random"), commandHelper),
+                MatchSetup.DEFAULT_STEP, intOption(options, "max-steps", MatchSetup.DEFAULT_MAX_STEPS));
+        int games = intOption(options, "games", 1000);
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        ForkJoinPool pool = new ForkJoinPool(intOption(options, "threads", Runtime.getRuntime().availableProcessors()));
+        try {
+            SimulationReport report = new Simulator(commandHelper).run(setup, games, seed, pool);
+            System.out.printf("games:          %d%n", report.games());
+            for (PlayerColor color : PlayerColor.values()) {
+                System.out.printf("%-15s %.1f%%%n", color.name().toLowerCase() + " wins:", report.winRate(color) * 100);
+            }
+            System.out.printf("draws:          %.1f%%%n", report.drawRate() * 100);
+            System.out.printf("average steps:  %.1f%n", report.averageSteps());
+            System.out.printf("average length: %s%n", report.averageLength());
+            System.out.printf("commands:       %d executed, %d rejected%n", report.commandsExecuted(), report.commandsRejected());
+            System.out.printf("throughput:     %.0f commands/s in %s%n", report.commandsPerSecond(), report.elapsed());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Strategy strategy(String name, RandomCommandHelper commandHelper) {
+        return switch (name) {
+            case "random" -> new RandomStrategy(commandHelper);
+            case "greedy" -> new GreedyStrategy(new RandomStrategy(commandHelper));
+            default -> throw new IllegalArgumentException("Unknown strategy " + name);
+        };
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.warpol.core.simulation;
+
+import org.example.warpol.core.entity.type.PlayerColor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of a batch of simulated games: wins per color, game length in steps and simulated time,
+ * and how many commands were played in how much real time.
+ */
+public record SimulationReport(
+        int games,
+        Map<PlayerColor, Integer> wins,
+        int draws,
+        double averageSteps,
+        Duration averageLength,
+        long commandsExecuted,
+        long commandsRejected,
+        Duration elapsed
+) {
+
+    public static SimulationReport of(List<MatchResult> results, Duration elapsed) {
+        Map<PlayerColor, Integer> wins = new EnumMap<>(PlayerColor.class);
+        for (PlayerColor color : PlayerColor.values()) {
+            wins.put(color, 0);
+        }
+        int draws = 0;
+        long steps = 0, lengthNanos = 0, executed = 0, rejected = 0;
+        for (MatchResult result : results) {
+            if (result.winner() == null) {
+                draws++;
+            } else {
+                wins.merge(result.winner(), 1, Integer::sum);
+            }
+            steps += result.steps();
+            lengthNanos += result.length().toNanos();
+            executed += result.commandsExecuted();
+            rejected += result.commandsRejected();
+        }
+        int games = results.size();
+        return new SimulationReport(games, Map.copyOf(wins), draws,
+                games == 0 ? 0 : (double) steps / games,
+                Duration.ofNanos(games == 0 ? 0 : lengthNanos / games),
+                executed, rejected, elapsed);
+    }
+
+    public double winRate(PlayerColor color) {
+        return games == 0 ? 0 : (double) wins.get(color) / games;
+    }
+
+    public double drawRate() {
+        return games == 0 ? 0 : (double) draws / games;
+    }
+
+    public double commandsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : (commandsExecuted + commandsRejected) * 1e9 / nanos;
+    }
+}
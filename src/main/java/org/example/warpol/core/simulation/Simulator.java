@@ -0,0 +1,164 @@
+package org.example.warpol.core.simulation;
+
+import lombok.RequiredArgsConstructor;
+import org.example.warpol.core.engine.EpochNanos;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.SpawnPlacer;
+import org.example.warpol.core.engine.UnitAdmission;
+import org.example.warpol.core.engine.UnitStore;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.service.RandomCommandHelper;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays complete games between two {@link Strategy strategies} without the web layer, the database
+ * or the wall clock. Games are set up and resolved with the same rules as {@code GameService}:
+ * units are placed by {@link SpawnPlacer}, cooldowns are admitted by {@link UnitAdmission} and
+ * commands are validated and applied through {@link RandomCommandHelper}. Time is simulated, it
+ * advances by the setup's step once both players have given their orders, and players take
+ * turns in who orders first. The game state reads its time from the simulation and records no
+ * changes for persistence, nothing is persisted or published.
+ */
+@RequiredArgsConstructor
+public class Simulator {
+
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+
+    private final RandomCommandHelper commandHelper;
+
+    /**
+     * Plays {@code games} games on the pool, each seeded from {@code seed}, so the same arguments
+     * give the same report apart from its elapsed time.
+     */
+    public SimulationReport run(MatchSetup setup, int games, long seed, ForkJoinPool pool) {
+        long[] seeds = new SplittableRandom(seed).longs(games).toArray();
+        long start = System.nanoTime();
+        List<MatchResult> results = pool.submit(() -> Arrays.stream(seeds)
+                        .parallel()
+                        .mapToObj(gameSeed -> play(setup, gameSeed))
+                        .toList())
+                .join();
+        return SimulationReport.of(results, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public MatchResult play(MatchSetup setup, long seed) {
+        GameEntity game = new GameEntity();
+        game.setId(new UUID(seed, 0));
+        game.setWidth(setup.width());
+        game.setHeight(setup.height());
+        game.setActive(true);
+        game.setSeed(seed);
+
+        List<Unit> spawned = SpawnPlacer.spawn(game, setup.units(), new SplittableRandom(seed));
+        int[] active = new int[COLORS.length];
+        for (int slot = 0; slot < spawned.size(); slot++) {
+            Unit unit = spawned.get(slot);
+            unit.setId(new UUID(seed, slot + 1));
+            active[unit.getColor().ordinal()]++;
+        }
+        SimulatedClock clock = new SimulatedClock();
+        GameState state = new GameState(game, spawned, clock, false);
+        UnitAdmission admission = state.getAdmission();
+        UnitStore store = state.getStore();
+        RandomGenerator random = state.getRandom();
+
+        int[] ready = new int[store.size()];
+        long stepNanos = setup.step().toNanos();
+        long executed = 0, rejected = 0;
+        int step = 0;
+        while (step < setup.maxSteps() && playersLeft(active) > 1) {
+            for (int turn = 0; turn < COLORS.length; turn++) {
+                PlayerColor color = COLORS[(step + turn) % COLORS.length];
+                Strategy strategy = setup.strategy(color);
+                int count = store.ready(color, clock.nanos, ready);
+                for (int i = 0; i < count; i++) {
+                    Unit unit = state.unitInSlot(ready[i]);
+                    Order order = strategy.order(unit, state, random);
+                    if (order == null) {
+                        continue;
+                    }
+                    if (!state.isOnBoard(order.targetX(), order.targetY())
+                            || !commandHelper.isValid(unit, order.type(), order.targetX(), order.targetY())) {
+                        rejected++;
+                        continue;
+                    }
+                    if (admission.tryReserve(unit.getId(), order.type(), color, clock.nanos) == null) {
+                        continue;
+                    }
+                    Unit destroyed = apply(state, unit, order);
+                    unit.setLastCommandTime(EpochNanos.toLocalDateTime(clock.nanos));
+                    if (destroyed != null) {
+                        active[destroyed.getColor().ordinal()]--;
+                    }
+                    executed++;
+                }
+            }
+            clock.nanos += stepNanos;
+            step++;
+        }
+        return new MatchResult(seed, winner(active), step, Duration.ofNanos(clock.nanos), executed, rejected);
+    }
+
+    /**
+     * Same effect as resolving the command in {@code GameService}: a move onto a friendly unit is
+     * spent in place, anything else destroys what stands on the target.
+     */
+    private Unit apply(GameState state, Unit unit, Order order) {
+        List<Unit> atTarget = state.unitsAt(order.targetX(), order.targetY());
+        if (order.type() == CommandType.MOVE && commandHelper.hasFriendly(unit, atTarget)) {
+            return null;
+        }
+        commandHelper.destroyEnemies(atTarget, state);
+        if (order.type() == CommandType.MOVE) {
+            unit.move(order.targetX(), order.targetY());
+        }
+        return atTarget.isEmpty() ? null : atTarget.get(0);
+    }
+
+    private static int playersLeft(int[] active) {
+        int left = 0;
+        for (int count : active) {
+            if (count > 0) {
+                left++;
+            }
+        }
+        return left;
+    }
+
+    private static PlayerColor winner(int[] active) {
+        PlayerColor winner = null;
+        for (PlayerColor color : COLORS) {
+            if (active[color.ordinal()] > 0) {
+                if (winner != null) {
+                    return null;
+                }
+                winner = color;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Time of a single game, starting at the epoch and advanced by the simulator between steps.
+     */
+    private static final class SimulatedClock implements LongSupplier {
+
+        private long nanos;
+
+        @Override
+        public long getAsLong() {
+            return nanos;
+        }
+    }
+}
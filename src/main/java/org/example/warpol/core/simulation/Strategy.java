@@ -0,0 +1,21 @@
+package org.example.warpol.core.simulation;
+
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.entity.unit.Unit;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides the commands of one player in a simulated game. Asked once per step for every active
+ * unit of the player that may act again, on the thread playing the game. The same instance plays
+ * many games in parallel, so implementations must be stateless or thread-safe.
+ */
+@FunctionalInterface
+public interface Strategy {
+
+    /**
+     * The command for the unit in this step, or {@code null} to leave it idle. The state must only
+     * be read, and {@code random} is the game's own generator.
+     */
+    Order order(Unit unit, GameState state, RandomGenerator random);
+}
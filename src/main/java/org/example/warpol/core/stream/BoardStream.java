@@ -0,0 +1,114 @@
+package org.example.warpol.core.stream;
+
+import jakarta.annotation.PreDestroy;
+import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.dto.BoardDelta;
+import org.example.warpol.core.engine.GameEngine;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes board changes of loaded games to connected clients. Deltas are published from the
+ * game's shard as units move, get destroyed or execute commands; every subscription starts
+ * with the current board, taken on the shard so no change can be missed in between. When the
+ * game is unloaded its subscriptions receive their last deltas, then an end event, and are closed.
+ */
+@Component
+public class BoardStream {
+
+    private final GameEngine gameEngine;
+    private final GameConfig.Stream config;
+    private final Map<UUID, List<BoardSubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BoardStream(GameEngine gameEngine, GameConfig gameConfig) {
+        this.gameEngine = gameEngine;
+        this.config = gameConfig.getStream();
+        gameEngine.setDeltaListener(this::publish);
+        gameEngine.addUnloadListener(this::end);
+    }
+
+    /**
+     * Server-sent events that end after the configured timeout. The first event tells the client
+     * how long to wait before reconnecting; a new subscription starts with the full board again.
+     */
+    public SseEmitter subscribe(UUID gameId) {
+        SseEmitter emitter = new SseEmitter(config.getTimeoutMs());
+        AtomicBoolean first = new AtomicBoolean(true);
+        BoardSubscription subscription = subscribe(gameId, deltas -> {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name("delta").data(deltas, MediaType.APPLICATION_JSON);
+            if (first.getAndSet(false)) {
+                event.reconnectTime(config.getRetryMs());
+            }
+            emitter.send(event);
+        }, () -> {
+            emitter.send(SseEmitter.event().name("end").data(gameId.toString()));
+            emitter.complete();
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+        return emitter;
+    }
+
+    public BoardSubscription subscribe(UUID gameId, DeltaSink sink) {
+        return subscribe(gameId, sink, () -> {});
+    }
+
+    /**
+     * @param onEnd called after the last deltas once the game is unloaded
+     */
+    public BoardSubscription subscribe(UUID gameId, DeltaSink sink, EndSink onEnd) {
+        return gameEngine.execute(gameId, state -> {
+            List<BoardSubscription> game = subscriptions.computeIfAbsent(gameId, id -> new CopyOnWriteArrayList<>());
+            BoardSubscription subscription = new BoardSubscription(sink, onEnd, sender, game::remove);
+            state.getUnits().forEach(unit -> subscription.offer(BoardDelta.unit(unit)));
+            game.add(subscription);
+            if (!gameEngine.isLoaded(gameId)) {
+                // unloaded while subscribing, the unload listener may have missed this subscription
+                end(gameId);
+            }
+            return subscription;
+        });
+    }
+
+    public void publish(UUID gameId, BoardDelta delta) {
+        List<BoardSubscription> game = subscriptions.get(gameId);
+        if (game != null) {
+            game.forEach(subscription -> subscription.offer(delta));
+        }
+    }
+
+    private void end(UUID gameId) {
+        List<BoardSubscription> game = subscriptions.remove(gameId);
+        if (game != null) {
+            game.forEach(BoardSubscription::end);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(game -> game.forEach(BoardSubscription::close));
+        sender.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface DeltaSink {
+        void send(List<BoardDelta> deltas) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface EndSink {
+        void end() throws Exception;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.warpol.core.stream;
+
+import org.example.warpol.core.dto.BoardDelta;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One connected client. Deltas are coalesced to the latest one per unit until the previous
+ * send has finished, so a slow client receives fewer, larger batches and never holds up
+ * the shard that publishes them. A subscription that is {@link #end() ended} sends what is still
+ * pending, then its end, and closes.
+ */
+public class BoardSubscription {
+
+    private final BoardStream.DeltaSink sink;
+    private final BoardStream.EndSink onEnd;
+    private final Executor sender;
+    private final Consumer<BoardSubscription> onClose;
+    private final Map<UUID, BoardDelta> pending = new LinkedHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private boolean ending;
+    private volatile boolean closed;
+
+    BoardSubscription(BoardStream.DeltaSink sink, BoardStream.EndSink onEnd, Executor sender,
+                      Consumer<BoardSubscription> onClose) {
+        this.sink = sink;
+        this.onEnd = onEnd;
+        this.sender = sender;
+        this.onClose = onClose;
+    }
+
+    void offer(BoardDelta delta) {
+        if (closed) {
+            return;
+        }
+        synchronized (pending) {
+            pending.merge(delta.unitId(), delta, BoardDelta::coalesce);
+        }
+        startDraining();
+    }
+
+    void end() {
+        if (closed) {
+            return;
+        }
+        synchronized (pending) {
+            ending = true;
+        }
+        startDraining();
+    }
+
+    private void startDraining() {
+        if (draining.compareAndSet(false, true)) {
+            sender.execute(this::drain);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void close() {
+        if (!closed) {
+            closed = true;
+            onClose.accept(this);
+        }
+    }
+
+    private void drain() {
+        while (!closed) {
+            List<BoardDelta> batch;
+            synchronized (pending) {
+                if (pending.isEmpty() && !ending) {
+                    draining.set(false);
+                    return;
+                }
+                batch = List.copyOf(pending.values());
+                pending.clear();
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    sink.send(batch);
+                } else {
+                    onEnd.end();
+                    close();
+                }
+            } catch (Exception ex) {
+                close();
+            }
+        }
+    }
+}
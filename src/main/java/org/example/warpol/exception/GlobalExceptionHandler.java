@@ -1,49 +1,95 @@
 package org.example.warpol.exception;
 
 import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.example.warpol.core.metrics.GameMetrics;
 import org.example.warpol.core.dto.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private static final ExceptionHandlerMethodResolver HANDLERS = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+    private final GameMetrics gameMetrics;
+
+    /**
+     * Gives the response Spring MVC would give for the exception, for endpoints served outside of it.
+     */
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<ErrorResponse> handle(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        Method handler = HANDLERS.resolveMethodByThrowable(cause);
+        if (handler == null) {
+            return reject(HttpStatus.INTERNAL_SERVER_ERROR, cause, cause.getMessage());
+        }
+        return (ResponseEntity<ErrorResponse>) ReflectionUtils.invokeMethod(handler, this, cause);
+    }
+
     @ExceptionHandler(CooldownNotElapsedException.class)
     public ResponseEntity<ErrorResponse> handleCooldownException(CooldownNotElapsedException ex) {
-        return ResponseEntity.status(HttpStatus.TOO_EARLY)
-                .body(new ErrorResponse(ex.getClass().getSimpleName(), ex.getMessage()));
+        return reject(HttpStatus.TOO_EARLY, ex, ex.getMessage());
     }
 
     @ExceptionHandler(UnauthorizedUnitAccessException.class)
     public ResponseEntity<ErrorResponse> handleUnauthorizedAccess(UnauthorizedUnitAccessException ex) {
-        return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                .body(new ErrorResponse(ex.getClass().getSimpleName(), ex.getMessage()));
+        return reject(HttpStatus.FORBIDDEN, ex, ex.getMessage());
     }
 
     @ExceptionHandler(GameNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleGameNotFound(GameNotFoundException ex) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body(new ErrorResponse(ex.getClass().getSimpleName(), ex.getMessage()));
+        return reject(HttpStatus.NOT_FOUND, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(UnitNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleUnitNotFound(UnitNotFoundException ex) {
+        return reject(HttpStatus.NOT_FOUND, ex, ex.getMessage());
     }
 
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleOtherErrors(RuntimeException ex) {
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(new ErrorResponse(ex.getClass().getSimpleName(), ex.getMessage()));
+        return reject(HttpStatus.INTERNAL_SERVER_ERROR, ex, ex.getMessage());
     }
 
     @ExceptionHandler(InvalidUnitCommandException.class)
     public ResponseEntity<ErrorResponse> handleInvalidUnitCommand(InvalidUnitCommandException ex) {
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(new ErrorResponse(ex.getClass().getSimpleName(), ex.getMessage()));
+        return reject(HttpStatus.BAD_REQUEST, ex, ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
+        return reject(HttpStatus.BAD_REQUEST, ex, ex.getMessage());
     }
 
     @ExceptionHandler(OptimisticLockException.class)
     public ResponseEntity<ErrorResponse> handleOptimisticLock(OptimisticLockException ex) {
-        return ResponseEntity.status(HttpStatus.CONFLICT)
-                .body(new ErrorResponse(ex.getClass().getSimpleName(), "Another command has modified this unit. Try again."));
+        return reject(HttpStatus.CONFLICT, ex, "Another command has modified this unit. Try again.");
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleConnectionTimeout(CannotCreateTransactionException ex) {
+        return reject(HttpStatus.SERVICE_UNAVAILABLE, ex, "No database connection is available. Try again.");
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleOverload(RejectedExecutionException ex) {
+        return reject(HttpStatus.SERVICE_UNAVAILABLE, ex, ex.getMessage());
+    }
+
+    private ResponseEntity<ErrorResponse> reject(HttpStatus status, Throwable ex, String message) {
+        gameMetrics.rejected(ex, status.value());
+        return ResponseEntity.status(status)
+                .body(new ErrorResponse(ex.getClass().getSimpleName(), message));
+    }
 }
@@ -0,0 +1,7 @@
+package org.example.warpol.exception;
+
+public class UnitNotFoundException extends RuntimeException {
+    public UnitNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,335 @@
+package org.example.warpol.api;
+
+import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.dto.ErrorResponse;
+import org.example.warpol.core.dto.ExecuteCommandRequest;
+import org.example.warpol.core.dto.PlayerCommandRequest;
+import org.example.warpol.core.dto.UnitResponse;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.protocol.BinaryCommand;
+import org.example.warpol.core.protocol.BinaryProtocol;
+import org.example.warpol.core.protocol.BinaryUnit;
+import org.example.warpol.core.service.GameService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.warpol.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Shared expectations of the command and unit endpoints, run against every stack that serves them.
+ * Each test plays a game through the endpoints and a twin game, created from the same seed, directly
+ * through {@link GameService}, and expects the same results from both.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"game.reactive.enabled=true", "game.reactive.port=0"})
+abstract class GameApiContractTest {
+
+    private static final Map<UnitType, Integer> UNITS = Map.of(UnitType.ARCHER, 3, UnitType.CANNON, 2);
+    private static final int BOARD_SIZE = 8;
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GlobalExceptionHandler exceptionHandler;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private WebTestClient client;
+
+    protected abstract int port();
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port() + "/api/v1")
+                .build();
+    }
+
+    private GameEntity[] twinGames() {
+        long seed = System.nanoTime();
+        return new GameEntity[]{
+                gameService.createNewGame(UNITS, BOARD_SIZE, BOARD_SIZE, seed),
+                gameService.createNewGame(UNITS, BOARD_SIZE, BOARD_SIZE, seed)
+        };
+    }
+
+    private UnitResponse unit(GameEntity game, PlayerColor color, UnitType type) {
+        return gameService.getUnits(game.getId(), color).stream()
+                .filter(unit -> unit.type() == type)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private UnitResponse twin(GameEntity twinGame, UnitResponse unit) {
+        return gameService.getUnits(twinGame.getId(), unit.color()).stream()
+                .filter(other -> other.positionX() == unit.positionX() && other.positionY() == unit.positionY())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static int[] neighbour(UnitResponse unit) {
+        int x = unit.positionX() + 1 < BOARD_SIZE ? unit.positionX() + 1 : unit.positionX() - 1;
+        return new int[]{x, unit.positionY()};
+    }
+
+    private Object readJson(byte[] body, Class<?> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private WebTestClient.ResponseSpec execute(UUID gameId, PlayerColor color, UUID unitId,
+                                               CommandType type, int targetX, int targetY) {
+        return client.post().uri("/command/execute")
+                .bodyValue(new PlayerCommandRequest<>(gameId, color,
+                        new ExecuteCommandRequest(unitId, type, targetX, targetY)))
+                .exchange();
+    }
+
+    @Test
+    void executeCommand_matchesGameService() {
+        GameEntity[] games = twinGames();
+        UnitResponse archer = unit(games[0], PlayerColor.WHITE, UnitType.ARCHER);
+        int[] target = neighbour(archer);
+
+        CommandResultResponse response = execute(games[0].getId(), PlayerColor.WHITE, archer.id(),
+                CommandType.MOVE, target[0], target[1])
+                .expectStatus().isOk()
+                .expectBody(CommandResultResponse.class)
+                .returnResult().getResponseBody();
+
+        CommandResultResponse expected = gameService.executeCommand(games[1].getId(), twin(games[1], archer).id(),
+                CommandType.MOVE, target[0], target[1], PlayerColor.WHITE);
+        assertThat(response).isEqualTo(expected);
+    }
+
+    @Test
+    void commandByHandle_matchesCommandById() {
+        GameEntity[] games = twinGames();
+        UnitResponse archer = unit(games[0], PlayerColor.WHITE, UnitType.ARCHER);
+        int[] target = neighbour(archer);
+
+        CommandResultResponse response = client.post().uri("/command/execute")
+                .bodyValue(new PlayerCommandRequest<>(games[0].getId(), PlayerColor.WHITE,
+                        ExecuteCommandRequest.forHandle(archer.handle(), CommandType.MOVE, target[0], target[1])))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CommandResultResponse.class)
+                .returnResult().getResponseBody();
+
+        CommandResultResponse expected = gameService.executeCommand(games[1].getId(), twin(games[1], archer).id(),
+                CommandType.MOVE, target[0], target[1], PlayerColor.WHITE);
+        assertThat(response).isEqualTo(expected);
+        assertThat(unit(games[0], PlayerColor.WHITE, UnitType.ARCHER).positionX()).isEqualTo(target[0]);
+    }
+
+    @Test
+    void commandWithinCooldown_isTooEarly() {
+        GameEntity game = twinGames()[0];
+        UnitResponse cannon = unit(game, PlayerColor.WHITE, UnitType.CANNON);
+
+        execute(game.getId(), PlayerColor.WHITE, cannon.id(), CommandType.SHOOT, 0, 0)
+                .expectStatus().isOk();
+        ErrorResponse error = execute(game.getId(), PlayerColor.WHITE, cannon.id(), CommandType.SHOOT, 0, 0)
+                .expectStatus().isEqualTo(HttpStatus.TOO_EARLY)
+                .expectBody(ErrorResponse.class)
+                .returnResult().getResponseBody();
+        assertThat(error.error()).isEqualTo("CooldownNotElapsedException");
+    }
+
+    @Test
+    void commandForOpponentsUnit_isForbidden() {
+        GameEntity game = twinGames()[0];
+        UnitResponse cannon = unit(game, PlayerColor.BLACK, UnitType.CANNON);
+
+        execute(game.getId(), PlayerColor.WHITE, cannon.id(), CommandType.SHOOT, 0, 0)
+                .expectStatus().isForbidden()
+                .expectBody().jsonPath("$.error").isEqualTo("UnauthorizedUnitAccessException");
+    }
+
+    @Test
+    void commandForUnknownGame_isNotFound() {
+        execute(UUID.randomUUID(), PlayerColor.WHITE, UUID.randomUUID(), CommandType.SHOOT, 0, 0)
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("GameNotFoundException");
+    }
+
+    @Test
+    void commandForUnknownUnit_isNotFound() {
+        GameEntity game = twinGames()[0];
+
+        execute(game.getId(), PlayerColor.WHITE, UUID.randomUUID(), CommandType.SHOOT, 0, 0)
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("UnitNotFoundException");
+    }
+
+    @Test
+    void targetOutsideBoard_isBadRequest() {
+        GameEntity game = twinGames()[0];
+        UnitResponse cannon = unit(game, PlayerColor.WHITE, UnitType.CANNON);
+
+        execute(game.getId(), PlayerColor.WHITE, cannon.id(), CommandType.SHOOT, BOARD_SIZE, 0)
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("InvalidUnitCommandException");
+    }
+
+    @Test
+    void randomCommand_matchesGameService() {
+        GameEntity[] games = twinGames();
+        UnitResponse archer = unit(games[0], PlayerColor.WHITE, UnitType.ARCHER);
+
+        EntityExchangeResult<byte[]> response = client.post().uri("/command/random")
+                .bodyValue(new PlayerCommandRequest<>(games[0].getId(), PlayerColor.WHITE, archer.id()))
+                .exchange()
+                .expectBody()
+                .returnResult();
+
+        ResponseEntity<?> expected;
+        try {
+            expected = ResponseEntity.ok(gameService.executeRandomCommand(games[1].getId(), PlayerColor.WHITE,
+                    twin(games[1], archer).id()));
+        } catch (RuntimeException ex) {
+            expected = exceptionHandler.handle(ex);
+        }
+        assertThat(response.getStatus()).isEqualTo(expected.getStatusCode());
+        Object body = readJson(response.getResponseBody(), expected.getBody().getClass());
+        assertThat(body).isEqualTo(expected.getBody());
+    }
+
+    @Test
+    void units_areTaggedAndNotModifiedUntilTheyChange() {
+        GameEntity game = twinGames()[0];
+        List<UnitResponse> expected = gameService.getUnits(game.getId(), PlayerColor.WHITE);
+
+        EntityExchangeResult<List<UnitResponse>> first = client.get()
+                .uri(uri -> uri.path("/units").queryParam("gameId", game.getId()).queryParam("color", "WHITE").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(UnitResponse.class)
+                .returnResult();
+        assertThat(first.getResponseBody()).containsExactlyElementsOf(expected);
+        String etag = first.getResponseHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        client.get()
+                .uri(uri -> uri.path("/units").queryParam("gameId", game.getId()).queryParam("color", "WHITE").build())
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        UnitResponse archer = unit(game, PlayerColor.WHITE, UnitType.ARCHER);
+        int[] target = neighbour(archer);
+        gameService.executeCommand(game.getId(), archer.id(), CommandType.MOVE, target[0], target[1], PlayerColor.WHITE);
+
+        client.get()
+                .uri(uri -> uri.path("/units").queryParam("gameId", game.getId()).queryParam("color", "WHITE").build())
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, value -> assertThat(value).isNotEqualTo(etag));
+    }
+
+    private List<BinaryUnit> binaryUnits(UUID gameId, PlayerColor color) {
+        byte[] body = client.get()
+                .uri(uri -> uri.path("/units").queryParam("gameId", gameId).queryParam("color", color).build())
+                .accept(BinaryProtocol.MEDIA_TYPE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(BinaryProtocol.MEDIA_TYPE)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+        return BinaryProtocol.decodeUnits(ByteBuffer.wrap(body));
+    }
+
+    private WebTestClient.ResponseSpec executeBinary(BinaryCommand command) {
+        ByteBuffer body = ByteBuffer.allocate(BinaryCommand.SIZE);
+        command.writeTo(body);
+        return client.post().uri("/command/execute")
+                .contentType(BinaryProtocol.MEDIA_TYPE)
+                .accept(BinaryProtocol.MEDIA_TYPE)
+                .bodyValue(body.array())
+                .exchange();
+    }
+
+    @Test
+    void binaryUnits_matchJsonUnits() {
+        GameEntity game = twinGames()[0];
+        List<UnitResponse> expected = gameService.getUnits(game.getId(), PlayerColor.WHITE);
+
+        List<BinaryUnit> units = binaryUnits(game.getId(), PlayerColor.WHITE);
+
+        assertThat(units).extracting(BinaryUnit::handle).isSorted().doesNotHaveDuplicates();
+        assertThat(units).extracting(BinaryUnit::handle, BinaryUnit::type, BinaryUnit::x, BinaryUnit::y,
+                        BinaryUnit::commandCount)
+                .containsExactlyInAnyOrderElementsOf(expected.stream()
+                        .map(unit -> tuple(unit.handle(), unit.type(), unit.positionX(),
+                                unit.positionY(), unit.commandCount()))
+                        .toList());
+    }
+
+    @Test
+    void binaryCommand_matchesGameService() {
+        GameEntity[] games = twinGames();
+        BinaryUnit archer = binaryUnits(games[0].getId(), PlayerColor.WHITE).stream()
+                .filter(unit -> unit.type() == UnitType.ARCHER)
+                .findFirst()
+                .orElseThrow();
+        int x = archer.x() + 1 < BOARD_SIZE ? archer.x() + 1 : archer.x() - 1;
+
+        byte[] response = executeBinary(new BinaryCommand(games[0].getId(), PlayerColor.WHITE, archer.handle(),
+                CommandType.MOVE, x, archer.y()))
+                .expectStatus().isOk()
+                .expectHeader().contentType(BinaryProtocol.MEDIA_TYPE)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+
+        UUID twinId = gameService.getUnits(games[1].getId(), PlayerColor.WHITE).stream()
+                .filter(unit -> unit.positionX() == archer.x() && unit.positionY() == archer.y())
+                .findFirst()
+                .orElseThrow().id();
+        CommandResultResponse expected = gameService.executeCommand(games[1].getId(), twinId,
+                CommandType.MOVE, x, archer.y(), PlayerColor.WHITE);
+        assertThat(response).containsExactly(BinaryProtocol.resultFlags(expected));
+    }
+
+    @Test
+    void binaryCommandWithinCooldown_isTooEarly() {
+        GameEntity game = twinGames()[0];
+        BinaryUnit cannon = binaryUnits(game.getId(), PlayerColor.WHITE).stream()
+                .filter(unit -> unit.type() == UnitType.CANNON)
+                .findFirst()
+                .orElseThrow();
+        BinaryCommand shoot = new BinaryCommand(game.getId(), PlayerColor.WHITE, cannon.handle(), CommandType.SHOOT, 0, 0);
+
+        executeBinary(shoot).expectStatus().isOk();
+        byte[] response = executeBinary(shoot)
+                .expectStatus().isEqualTo(HttpStatus.TOO_EARLY)
+                .expectHeader().contentType(BinaryProtocol.MEDIA_TYPE)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+
+        assertThat(BinaryProtocol.decodeError(ByteBuffer.wrap(response)).error()).isEqualTo("CooldownNotElapsedException");
+    }
+}
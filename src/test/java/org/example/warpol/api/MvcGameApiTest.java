@@ -0,0 +1,14 @@
+package org.example.warpol.api;
+
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+class MvcGameApiTest extends GameApiContractTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Override
+    protected int port() {
+        return port;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.warpol.api;
+
+import org.example.warpol.core.reactive.ReactiveGameServer;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class ReactiveGameApiTest extends GameApiContractTest {
+
+    @Autowired
+    private ReactiveGameServer reactiveGameServer;
+
+    @Override
+    protected int port() {
+        return reactiveGameServer.getPort();
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.warpol.benchmark;
+
+import org.example.warpol.WarpolApplication;
+import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.WriteBehindPersister;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.warpol.core.entity.BaseEntity;
+import org.example.warpol.core.metrics.GameMetrics;
+import org.example.warpol.core.repository.GameRepository;
+import org.example.warpol.core.repository.UnitRepository;
+import org.example.warpol.core.service.GameService;
+import org.example.warpol.core.service.RandomCommandHelper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The game service wired either against H2 through the full Spring context, or against
+ * repositories that keep nothing, so the in-memory cost can be told apart from the database.
+ * Both run in tick mode with ticks driven by the benchmark, which lets cooldowns be skipped
+ * by advancing the tick clock instead of waiting.
+ */
+final class BenchmarkBackend implements AutoCloseable {
+
+    final GameService service;
+    final GameEngine engine;
+    private final Runnable flush;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkBackend(GameService service, GameEngine engine, Runnable flush,
+                             ConfigurableApplicationContext context) {
+        this.service = service;
+        this.engine = engine;
+        this.flush = flush;
+        this.context = context;
+    }
+
+    static BenchmarkBackend create(String storage) {
+        return switch (storage) {
+            case "memory" -> memory();
+            case "h2" -> h2();
+            default -> throw new IllegalArgumentException("Unknown storage " + storage);
+        };
+    }
+
+    static BenchmarkBackend memory() {
+        GameConfig config = new GameConfig();
+        config.getTick().setEnabled(true);
+        GameEngine engine = new GameEngine();
+        GameService service = new GameService(repository(UnitRepository.class), repository(GameRepository.class),
+                config, new RandomCommandHelper(), engine, Optional.empty(),
+                new GameMetrics(new SimpleMeterRegistry()));
+        return new BenchmarkBackend(service, engine, engine::drainChanges, null);
+    }
+
+    static BenchmarkBackend h2() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(WarpolApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+                        "spring.jpa.show-sql=false",
+                        "game.persistence.flush-interval-ms=3600000",
+                        "logging.level.root=WARN")
+                .run();
+        context.getBean(GameConfig.class).getTick().setEnabled(true);
+        WriteBehindPersister persister = context.getBean(WriteBehindPersister.class);
+        return new BenchmarkBackend(context.getBean(GameService.class), context.getBean(GameEngine.class),
+                persister::flush, context);
+    }
+
+    /**
+     * Unloads the game and deletes what was written for it, so games created by a benchmark do not
+     * pile up in the engine or the database. Changes of the game that were not flushed are dropped.
+     */
+    void discard(UUID gameId) {
+        engine.unregister(gameId);
+        if (context != null) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("delete from commands where game_id = ?", gameId);
+            jdbcTemplate.update("delete from unit where game_id = ?", gameId);
+            jdbcTemplate.update("delete from games where id = ?", gameId);
+        }
+    }
+
+    /**
+     * Runs one tick at the given time and writes its changes, as {@code TickScheduler} does.
+     */
+    void tick(long tickNanos) {
+        engine.tick(tickNanos);
+        flush.run();
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        } else {
+            engine.shutdown();
+        }
+    }
+
+    private static <R> R repository(Class<R> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "save" -> withId(args[0]);
+                    case "saveAll" -> {
+                        List<Object> saved = new ArrayList<>();
+                        ((Iterable<?>) args[0]).forEach(entity -> saved.add(withId(entity)));
+                        yield saved;
+                    }
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+
+    private static Object withId(Object entity) {
+        ((BaseEntity) entity).setId(UUID.randomUUID());
+        return entity;
+    }
+}
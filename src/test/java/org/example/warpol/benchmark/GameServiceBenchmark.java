@@ -0,0 +1,144 @@
+package org.example.warpol.benchmark;
+
+import org.example.warpol.core.dto.BulkCommandResult;
+import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of creating a game and of resolving one command through
+ * {@code GameService}, including the tick that resolves it and the write that follows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GameServiceBenchmark {
+
+    private static final long TICK_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Param({"memory", "h2"})
+    public String storage;
+
+    @Param({"16", "128", "1024"})
+    public int boardSize;
+
+    @Param({"4", "32"})
+    public int unitsPerType;
+
+    private BenchmarkBackend backend;
+    private Map<UnitType, Integer> unitsConfig;
+    private GameEntity game;
+    private List<Shot> shots;
+    private final List<UUID> createdGames = new ArrayList<>();
+    private long tickNanos;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        backend = BenchmarkBackend.create(storage);
+        unitsConfig = Map.of(UnitType.ARCHER, unitsPerType, UnitType.CANNON, unitsPerType, UnitType.TRANSPORT, unitsPerType);
+        game = backend.service.createNewGame(unitsConfig, boardSize, boardSize);
+        shots = backend.engine.execute(game.getId(), state -> {
+            List<Shot> found = new ArrayList<>();
+            for (Unit unit : state.getUnits()) {
+                if (unit.getType() == UnitType.TRANSPORT) {
+                    continue;
+                }
+                for (int i = 0; i < boardSize; i++) {
+                    if (state.unitAt(i, unit.getPositionY()) == null) {
+                        found.add(new Shot(unit, i, unit.getPositionY()));
+                        break;
+                    }
+                    if (state.unitAt(unit.getPositionX(), i) == null) {
+                        found.add(new Shot(unit, unit.getPositionX(), i));
+                        break;
+                    }
+                }
+            }
+            return found;
+        });
+        if (shots.isEmpty()) {
+            throw new IllegalStateException("No unit has an empty cell to shoot at");
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void discardCreatedGames() {
+        createdGames.forEach(backend::discard);
+        createdGames.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        backend.close();
+    }
+
+    /**
+     * Created games are unloaded and deleted after every iteration, so later iterations do not
+     * run against a growing engine and database.
+     */
+    @Benchmark
+    public GameEntity createNewGame() {
+        GameEntity created = backend.service.createNewGame(unitsConfig, boardSize, boardSize);
+        createdGames.add(created.getId());
+        return created;
+    }
+
+    /**
+     * A valid shot at an empty cell, so every call is resolved the same way and leaves the board
+     * unchanged. Each call runs on its own tick a minute after the previous one, so no unit is
+     * ever on cooldown; a rejected command fails the benchmark.
+     */
+    @Benchmark
+    public CommandResultResponse executeCommand() {
+        Shot shot = shots.get(next++ % shots.size());
+        CompletableFuture<CommandResultResponse> result = backend.service.submitCommand(game.getId(),
+                shot.unit().getId(), CommandType.SHOOT, shot.targetX(), shot.targetY(), shot.unit().getColor());
+        backend.tick(tickNanos += TICK_NANOS);
+        return result.join();
+    }
+
+    /**
+     * One round of random commands for every unit of a player on a freshly spawned board, so
+     * destroyed units never accumulate into a finished game.
+     */
+    @Benchmark
+    public BulkCommandResult executeRandomCommands(FreshGame fresh) {
+        CompletableFuture<BulkCommandResult> result =
+                backend.service.submitRandomCommands(fresh.game.getId(), PlayerColor.values()[next++ & 1]);
+        backend.tick(tickNanos += TICK_NANOS);
+        return result.join();
+    }
+
+    @State(Scope.Thread)
+    public static class FreshGame {
+
+        private GameEntity game;
+
+        @Setup(Level.Invocation)
+        public void setUp(GameServiceBenchmark benchmark) {
+            game = benchmark.backend.service.createNewGame(benchmark.unitsConfig, benchmark.boardSize, benchmark.boardSize);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown(GameServiceBenchmark benchmark) {
+            benchmark.backend.discard(game.getId());
+        }
+    }
+
+    private record Shot(Unit unit, int targetX, int targetY) {
+    }
+}
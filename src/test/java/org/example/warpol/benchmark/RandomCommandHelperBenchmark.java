@@ -0,0 +1,146 @@
+package org.example.warpol.benchmark;
+
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.SpawnPlacer;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.ArcherEntity;
+import org.example.warpol.core.entity.unit.CannonEntity;
+import org.example.warpol.core.entity.unit.TransportEntity;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.service.RandomCommandHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The validation, targeting and destruction steps of command resolution on their own,
+ * cycling through every unit of a populated board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RandomCommandHelperBenchmark {
+
+    @Param({"16", "128", "1024"})
+    public int boardSize;
+
+    @Param({"4", "32"})
+    public int unitsPerType;
+
+    private final RandomCommandHelper helper = new RandomCommandHelper();
+    private final Random random = new Random(42);
+    private final SplittableRandom splittable = new SplittableRandom(42);
+    private GameEntity game;
+    private Unit[] units;
+    private CommandType[] commands;
+    private int[][] targets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(boardSize);
+        game.setHeight(boardSize);
+
+        List<Unit> created = new ArrayList<>();
+        for (PlayerColor color : PlayerColor.values()) {
+            for (UnitType type : UnitType.values()) {
+                for (int i = 0; i < unitsPerType; i++) {
+                    Unit unit = switch (type) {
+                        case ARCHER -> new ArcherEntity();
+                        case CANNON -> new CannonEntity();
+                        case TRANSPORT -> new TransportEntity();
+                    };
+                    unit.setId(UUID.randomUUID());
+                    unit.setType(type);
+                    unit.setColor(color);
+                    unit.setStatus(UnitStatus.ACTIVE);
+                    unit.setGame(game);
+                    created.add(unit);
+                }
+            }
+        }
+        long[] cells = SpawnPlacer.sampleCells(random, boardSize, boardSize, created.size());
+        for (int i = 0; i < cells.length; i++) {
+            created.get(i).setPositionX((int) (cells[i] % boardSize));
+            created.get(i).setPositionY((int) (cells[i] / boardSize));
+        }
+
+        units = created.toArray(Unit[]::new);
+        commands = new CommandType[units.length];
+        targets = new int[units.length][];
+        for (int i = 0; i < units.length; i++) {
+            commands[i] = helper.getRandomCommandForUnit(units[i], random);
+            targets[i] = helper.getRandomTargetFor(units[i], commands[i], boardSize, boardSize, random);
+        }
+    }
+
+    private int nextIndex() {
+        int i = next++;
+        if (next == units.length) {
+            next = 0;
+        }
+        return i;
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        int i = nextIndex();
+        return helper.isValid(units[i], commands[i], targets[i][0], targets[i][1]);
+    }
+
+    @Benchmark
+    public int[] getRandomTargetFor() {
+        int i = nextIndex();
+        return helper.getRandomTargetFor(units[i], commands[i], boardSize, boardSize, random);
+    }
+
+    /**
+     * Command and target generation as done for every unit by the bulk random command;
+     * run with {@code -prof gc} to check that it stays allocation-free.
+     */
+    @Benchmark
+    public long randomCommand() {
+        Unit unit = units[nextIndex()];
+        CommandType type = helper.getRandomCommandForUnit(unit, splittable);
+        return helper.getRandomPackedTargetFor(unit, type, boardSize, boardSize, splittable) + type.ordinal();
+    }
+
+    /**
+     * Destroys one active unit per call. The board is rebuilt with the previous victim restored
+     * before every call, outside of the measurement, so no call sees a destroyed unit or the
+     * events of earlier calls.
+     */
+    @Benchmark
+    public boolean destroyEnemies(Board board) {
+        return helper.destroyEnemies(List.of(board.victim), board.state);
+    }
+
+    @State(Scope.Thread)
+    public static class Board {
+
+        private GameState state;
+        private Unit victim;
+
+        @Setup(Level.Invocation)
+        public void setUp(RandomCommandHelperBenchmark benchmark) {
+            if (victim != null) {
+                victim.setStatus(UnitStatus.ACTIVE);
+            }
+            victim = benchmark.units[benchmark.nextIndex()];
+            state = new GameState(benchmark.game, List.of(benchmark.units));
+        }
+    }
+}
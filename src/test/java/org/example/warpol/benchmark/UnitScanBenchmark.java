@@ -0,0 +1,98 @@
+package org.example.warpol.benchmark;
+
+import org.example.warpol.core.engine.EpochNanos;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.SpawnPlacer;
+import org.example.warpol.core.engine.UnitStore;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the units of a player that may take a command, once by walking the entities and once by
+ * scanning the game's {@link UnitStore}. Half of the units have a recent command.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UnitScanBenchmark {
+
+    @Param({"32", "1024", "16384"})
+    public int unitsPerType;
+
+    private GameState state;
+    private UnitStore store;
+    private Unit[] units;
+    private int[] slots;
+    private LocalDateTime now;
+    private long nowNanos;
+
+    @Setup
+    public void setUp() {
+        int boardSize = 1024;
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(boardSize);
+        game.setHeight(boardSize);
+        List<Unit> spawned = SpawnPlacer.spawn(game, Map.of(UnitType.ARCHER, unitsPerType,
+                UnitType.CANNON, unitsPerType, UnitType.TRANSPORT, unitsPerType), new SplittableRandom(42));
+        now = LocalDateTime.now();
+        SplittableRandom random = new SplittableRandom(7);
+        for (Unit unit : spawned) {
+            unit.setId(UUID.randomUUID());
+            if (random.nextBoolean()) {
+                unit.setLastCommandTime(now.minusSeconds(random.nextInt(4)));
+            }
+        }
+        state = new GameState(game, spawned);
+        store = state.getStore();
+        units = state.getUnits().toArray(Unit[]::new);
+        slots = new int[store.size()];
+        nowNanos = EpochNanos.of(now);
+    }
+
+    @Benchmark
+    public int readyEntities() {
+        int found = 0;
+        for (Unit unit : units) {
+            if (unit.getStatus() != UnitStatus.ACTIVE || unit.getColor() != PlayerColor.WHITE) {
+                continue;
+            }
+            LocalDateTime last = unit.getLastCommandTime();
+            if (last == null || last.plus(minCooldown(unit)).isBefore(now)) {
+                slots[found++] = state.slotOf(unit);
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int readyStore() {
+        return store.ready(PlayerColor.WHITE, nowNanos, slots);
+    }
+
+    @Benchmark
+    public int activeOfColorStore() {
+        return store.activeOfColor(PlayerColor.WHITE, slots);
+    }
+
+    private static Duration minCooldown(Unit unit) {
+        Duration move = unit.getCooldown(CommandType.MOVE);
+        Duration shoot = unit.getCooldown(CommandType.SHOOT);
+        return move.compareTo(shoot) <= 0 ? move : shoot;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.warpol.engine;
+
+import org.example.warpol.core.engine.FlushScheduler;
+import org.example.warpol.core.engine.WriteBehindPersister;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class FlushSchedulerTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(WriteBehindPersister.class, () -> mock(WriteBehindPersister.class))
+            .withUserConfiguration(FlushScheduler.class);
+
+    @Test
+    void flushesOnASchedule_byDefault() {
+        contextRunner.run(context -> assertThat(context).hasSingleBean(FlushScheduler.class));
+    }
+
+    @Test
+    void leavesFlushingToTheTicks_whenTicksAreEnabled() {
+        contextRunner.withPropertyValues("game.tick.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(FlushScheduler.class));
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.warpol.engine;
+
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.exception.GameNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameEngineTest {
+
+    private final GameEngine engine = new GameEngine(4);
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private UUID register() {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(8);
+        game.setHeight(8);
+        engine.register(new GameState(game, List.of()));
+        return game.getId();
+    }
+
+    @Test
+    void differentGamesRunInParallel() throws Exception {
+        UUID first = register();
+        UUID second = register();
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> blocked = engine.submit(first, state -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertThat(engine.execute(second, GameState::getGameId)).isEqualTo(second);
+        assertThat(blocked).isNotDone();
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void actionsOfOneGameAreSerialized() {
+        UUID gameId = register();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Void>> futures = IntStream.range(0, 1000)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> engine.execute(gameId, state -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    running.decrementAndGet();
+                    return null;
+                })))
+                .toList();
+        futures.forEach(CompletableFuture::join);
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownGame_throws() {
+        assertThatThrownBy(() -> engine.execute(UUID.randomUUID(), GameState::getGameId))
+                .isInstanceOf(GameNotFoundException.class);
+    }
+
+    @Test
+    void missingGameId_isRejected() {
+        assertThatThrownBy(() -> engine.execute(null, GameState::getGameId))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(engine.isLoaded(null)).isFalse();
+    }
+
+    @Test
+    void unregisteredGame_isUnloadedAndListenersAreNotified() {
+        UUID gameId = register();
+        List<UUID> unloaded = new CopyOnWriteArrayList<>();
+        engine.addUnloadListener(unloaded::add);
+
+        engine.unregister(gameId);
+        engine.unregister(gameId);
+
+        assertThat(engine.isLoaded(gameId)).isFalse();
+        assertThat(unloaded).containsExactly(gameId);
+        assertThatThrownBy(() -> engine.execute(gameId, GameState::getGameId))
+                .isInstanceOf(GameNotFoundException.class);
+    }
+
+    @Test
+    void unregisteredGame_failsCommandsWaitingForATick() {
+        UUID gameId = register();
+        CompletableFuture<UUID> waiting = engine.enqueue(gameId, GameState::getGameId);
+
+        engine.unregister(gameId);
+
+        assertThatThrownBy(() -> waiting.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(GameNotFoundException.class);
+        assertThat(engine.tick(42L)).isZero();
+    }
+
+    @Test
+    void exceptionsArePropagatedUnwrapped() {
+        UUID gameId = register();
+        assertThatThrownBy(() -> engine.execute(gameId, state -> {
+            throw new IllegalArgumentException("boom");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("boom");
+    }
+
+    @Test
+    void enqueuedActionsRunOnlyOnTick_withTheTickClock() {
+        UUID gameId = register();
+        CompletableFuture<Long> clock = engine.enqueue(gameId, GameState::nowNanos);
+
+        assertThat(engine.execute(gameId, GameState::getGameId)).isEqualTo(gameId);
+        assertThat(clock).isNotDone();
+
+        assertThat(engine.tick(42L)).isEqualTo(1);
+        assertThat(clock.join()).isEqualTo(42L);
+        assertThat(engine.execute(gameId, GameState::nowNanos)).isNotEqualTo(42L);
+        assertThat(engine.tick(43L)).isZero();
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.warpol.engine;
+
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.OccupancyGrid;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.unit.TransportEntity;
+import org.example.warpol.core.entity.unit.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OccupancyGridTest {
+
+    @Test
+    void setGetAndClear() {
+        OccupancyGrid grid = new OccupancyGrid(100, 70);
+        assertThat(grid.get(99, 69)).isEqualTo(OccupancyGrid.EMPTY);
+        grid.set(99, 69, 0);
+        grid.set(64, 64, 7);
+        assertThat(grid.get(99, 69)).isZero();
+        assertThat(grid.get(64, 64)).isEqualTo(7);
+        grid.clear(64, 64, 3);
+        assertThat(grid.get(64, 64)).isEqualTo(7);
+        grid.clear(64, 64, 7);
+        assertThat(grid.isOccupied(64, 64)).isFalse();
+    }
+
+    @Test
+    void outsideOfBoard() {
+        OccupancyGrid grid = new OccupancyGrid(8, 8);
+        assertThat(grid.get(-1, 0)).isEqualTo(OccupancyGrid.EMPTY);
+        assertThat(grid.get(8, 0)).isEqualTo(OccupancyGrid.EMPTY);
+        assertThat(grid.contains(7, 7)).isTrue();
+        assertThatThrownBy(() -> grid.set(0, 8, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void gameState_followsMovesAndDestructionOnLargeBoard() {
+        int size = 4096;
+        int count = 40_000;
+        Random random = new Random(7);
+        Map<Long, Unit> expected = new HashMap<>();
+        List<Unit> units = new ArrayList<>();
+        while (units.size() < count) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            if (expected.containsKey(key(x, y))) continue;
+            Unit unit = unit(x, y);
+            expected.put(key(x, y), unit);
+            units.add(unit);
+        }
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(size);
+        game.setHeight(size);
+        GameState state = new GameState(game, units);
+
+        for (int i = 0; i < 100_000; i++) {
+            Unit unit = units.get(random.nextInt(count));
+            if (unit.getStatus() != UnitStatus.ACTIVE) continue;
+            if (random.nextInt(10) == 0) {
+                expected.remove(key(unit.getPositionX(), unit.getPositionY()));
+                unit.destroy();
+                continue;
+            }
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            if (expected.containsKey(key(x, y))) continue;
+            expected.remove(key(unit.getPositionX(), unit.getPositionY()));
+            unit.move(x, y);
+            expected.put(key(x, y), unit);
+        }
+
+        for (Unit unit : units) {
+            Unit atPosition = state.unitAt(unit.getPositionX(), unit.getPositionY());
+            if (unit.getStatus() == UnitStatus.ACTIVE) {
+                assertThat(atPosition).isSameAs(unit);
+            } else {
+                assertThat(atPosition).isSameAs(expected.get(key(unit.getPositionX(), unit.getPositionY())));
+            }
+        }
+        for (int i = 0; i < 10_000; i++) {
+            int x = random.nextInt(size);
+            int y = random.nextInt(size);
+            assertThat(state.unitAt(x, y)).isSameAs(expected.get(key(x, y)));
+        }
+    }
+
+    private static Unit unit(int x, int y) {
+        Unit unit = new TransportEntity();
+        unit.setId(UUID.randomUUID());
+        unit.setColor(PlayerColor.WHITE);
+        unit.setStatus(UnitStatus.ACTIVE);
+        unit.setPositionX(x);
+        unit.setPositionY(y);
+        return unit;
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | y;
+    }
+}
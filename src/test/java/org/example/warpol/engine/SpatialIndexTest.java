@@ -0,0 +1,131 @@
+package org.example.warpol.engine;
+
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.SpatialIndex;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.unit.TransportEntity;
+import org.example.warpol.core.entity.unit.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpatialIndexTest {
+
+    @Test
+    void queryReturnsSlotsInsideRectangle_acrossBuckets() {
+        SpatialIndex index = new SpatialIndex(40, 40);
+        index.add(0, 0, 0);
+        index.add(1, 15, 15);
+        index.add(2, 16, 16);
+        index.add(3, 39, 39);
+        index.remove(1, 15, 15);
+
+        List<Integer> slots = new ArrayList<>();
+        index.query(-5, -5, 16, 16, slots::add);
+        assertThat(slots).containsExactlyInAnyOrder(0, 2);
+
+        slots.clear();
+        index.query(17, 17, 100, 100, slots::add);
+        assertThat(slots).containsExactly(3);
+
+        slots.clear();
+        index.query(5, 5, 4, 4, slots::add);
+        assertThat(slots).isEmpty();
+    }
+
+    @Test
+    void gameStateQueries_matchBruteForce_afterMovesAndDestruction() {
+        int width = 300;
+        int height = 200;
+        Random random = new Random(11);
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(width);
+        game.setHeight(height);
+
+        Set<Long> taken = new HashSet<>();
+        List<Unit> units = new ArrayList<>();
+        while (units.size() < 2_000) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (taken.add((long) y * width + x)) {
+                TransportEntity unit = new TransportEntity();
+                unit.setId(UUID.randomUUID());
+                unit.setColor(random.nextBoolean() ? PlayerColor.WHITE : PlayerColor.BLACK);
+                unit.setStatus(UnitStatus.ACTIVE);
+                unit.setPositionX(x);
+                unit.setPositionY(y);
+                units.add(unit);
+            }
+        }
+        GameState state = new GameState(game, units);
+
+        for (int i = 0; i < 500; i++) {
+            Unit unit = units.get(random.nextInt(units.size()));
+            if (unit.getStatus() != UnitStatus.ACTIVE) {
+                continue;
+            }
+            if (i % 5 == 0) {
+                unit.destroy();
+                continue;
+            }
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (state.unitAt(x, y) == null) {
+                unit.move(x, y);
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            int x0 = random.nextInt(width);
+            int y0 = random.nextInt(height);
+            int x1 = x0 + random.nextInt(60) - 10;
+            int y1 = y0 + random.nextInt(60) - 10;
+            assertThat(state.unitsInArea(x0, y0, x1, y1)).containsExactlyInAnyOrderElementsOf(active(units, u ->
+                    u.getPositionX() >= x0 && u.getPositionX() <= x1 && u.getPositionY() >= y0 && u.getPositionY() <= y1));
+
+            int radius = random.nextInt(40);
+            assertThat(state.unitsInRadius(x0, y0, radius)).containsExactlyInAnyOrderElementsOf(active(units, u -> {
+                long dx = u.getPositionX() - x0;
+                long dy = u.getPositionY() - y0;
+                return dx * dx + dy * dy <= (long) radius * radius;
+            }));
+        }
+
+        Unit shooter = active(units, u -> true).get(0);
+        assertThat(state.lineOfFire(shooter)).containsExactlyInAnyOrderElementsOf(active(units, u -> u != shooter
+                && (u.getPositionX() == shooter.getPositionX() || u.getPositionY() == shooter.getPositionY())));
+    }
+
+    @Test
+    void unitsInRadius_saturatesHugeRadii_andRejectsNegativeOnes() {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(8);
+        game.setHeight(8);
+        TransportEntity unit = new TransportEntity();
+        unit.setId(UUID.randomUUID());
+        unit.setColor(PlayerColor.WHITE);
+        unit.setStatus(UnitStatus.ACTIVE);
+        unit.setPositionX(3);
+        unit.setPositionY(4);
+        GameState state = new GameState(game, List.of(unit));
+
+        assertThat(state.unitsInRadius(3, 4, Integer.MAX_VALUE)).containsExactly(unit);
+        assertThat(state.unitsInRadius(Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE)).isEmpty();
+        assertThatThrownBy(() -> state.unitsInRadius(3, 4, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Unit> active(List<Unit> units, Predicate<Unit> filter) {
+        return units.stream()
+                .filter(u -> u.getStatus() == UnitStatus.ACTIVE)
+                .filter(filter)
+                .toList();
+    }
+}
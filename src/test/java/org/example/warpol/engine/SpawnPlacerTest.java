@@ -0,0 +1,33 @@
+package org.example.warpol.engine;
+
+import org.example.warpol.core.engine.SpawnPlacer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpawnPlacerTest {
+
+    @Test
+    void sampleCells_distinctAndOnBoard() {
+        long[] cells = SpawnPlacer.sampleCells(new SplittableRandom(1), 4096, 4096, 50_000);
+        assertThat(cells).hasSize(50_000);
+        assertThat(Arrays.stream(cells).distinct().count()).isEqualTo(50_000);
+        assertThat(Arrays.stream(cells).allMatch(cell -> cell >= 0 && cell < 4096L * 4096L)).isTrue();
+    }
+
+    @Test
+    void sampleCells_fillsWholeBoard() {
+        long[] cells = SpawnPlacer.sampleCells(new SplittableRandom(2), 3, 3, 9);
+        assertThat(Arrays.stream(cells).sorted().toArray()).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8);
+    }
+
+    @Test
+    void sampleCells_moreUnitsThanCells_throws() {
+        assertThatThrownBy(() -> SpawnPlacer.sampleCells(new SplittableRandom(3), 2, 2, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
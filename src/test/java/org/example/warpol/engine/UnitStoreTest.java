@@ -0,0 +1,94 @@
+package org.example.warpol.engine;
+
+import org.example.warpol.core.engine.EpochNanos;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.UnitStore;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.ArcherEntity;
+import org.example.warpol.core.entity.unit.CannonEntity;
+import org.example.warpol.core.entity.unit.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitStoreTest {
+
+    private static Unit unit(Unit unit, int handle, PlayerColor color, int x, int y) {
+        unit.setId(UUID.randomUUID());
+        unit.setHandle(handle);
+        unit.setType(unit instanceof ArcherEntity ? UnitType.ARCHER : UnitType.CANNON);
+        unit.setColor(color);
+        unit.setStatus(UnitStatus.ACTIVE);
+        unit.setPositionX(x);
+        unit.setPositionY(y);
+        return unit;
+    }
+
+    private static GameState state(Unit... units) {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(8);
+        game.setHeight(8);
+        return new GameState(game, List.of(units));
+    }
+
+    private static int[] scan(UnitStore store, ToIntFunction<int[]> scan) {
+        int[] out = new int[store.size()];
+        return Arrays.copyOf(out, scan.applyAsInt(out));
+    }
+
+    @Test
+    void copiesUnitsBySlotAndFollowsMovesAndDestruction() {
+        Unit archer = unit(new ArcherEntity(), 1, PlayerColor.WHITE, 1, 1);
+        Unit cannon = unit(new CannonEntity(), 0, PlayerColor.BLACK, 5, 5);
+        GameState state = state(archer, cannon);
+        UnitStore store = state.getStore();
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.type(0)).isEqualTo(UnitType.CANNON);
+        assertThat(store.color(1)).isEqualTo(PlayerColor.WHITE);
+
+        archer.move(1, 2);
+        cannon.destroy();
+
+        assertThat(store.x(1)).isEqualTo(1);
+        assertThat(store.y(1)).isEqualTo(2);
+        assertThat(store.isActive(0)).isFalse();
+        assertThat(scan(store, out -> store.ofColor(PlayerColor.BLACK, out))).containsExactly(0);
+        assertThat(scan(store, out -> store.activeOfColor(PlayerColor.BLACK, out))).isEmpty();
+        assertThat(store.firstActiveEnemy(PlayerColor.BLACK)).isEqualTo(1);
+        assertThat(store.firstActiveEnemy(PlayerColor.WHITE)).isEqualTo(-1);
+    }
+
+    @Test
+    void ready_followsTheShortestCooldownOfEachUnit() {
+        Unit archer = unit(new ArcherEntity(), 0, PlayerColor.WHITE, 1, 1);
+        Unit cannon = unit(new CannonEntity(), 1, PlayerColor.WHITE, 3, 3);
+        Unit enemy = unit(new ArcherEntity(), 2, PlayerColor.BLACK, 5, 5);
+        GameState state = state(archer, cannon, enemy);
+        UnitStore store = state.getStore();
+        long now = EpochNanos.now();
+
+        assertThat(scan(store, out -> store.ready(PlayerColor.WHITE, now, out))).containsExactly(0, 1);
+
+        assertThat(state.getAdmission().tryReserve(archer.getId(), CommandType.MOVE, PlayerColor.WHITE, now)).isNotNull();
+        assertThat(state.getAdmission().tryReserve(cannon.getId(), CommandType.SHOOT, PlayerColor.WHITE, now)).isNotNull();
+        assertThat(scan(store, out -> store.ready(PlayerColor.WHITE, now, out))).isEmpty();
+
+        long archerReady = now + store.cooldownNanos(0, CommandType.MOVE) + 1;
+        long cannonReady = now + Math.min(store.cooldownNanos(1, CommandType.MOVE), store.cooldownNanos(1, CommandType.SHOOT)) + 1;
+        assertThat(scan(store, out -> store.ready(PlayerColor.WHITE, Math.max(archerReady, cannonReady), out)))
+                .containsExactly(0, 1);
+        assertThat(scan(store, out -> store.ready(PlayerColor.WHITE, Math.min(archerReady, cannonReady), out)))
+                .hasSize(1);
+    }
+}
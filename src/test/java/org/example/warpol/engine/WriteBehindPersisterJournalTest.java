@@ -0,0 +1,104 @@
+package org.example.warpol.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.PendingChanges;
+import org.example.warpol.core.engine.WriteBehindPersister;
+import org.example.warpol.core.entity.CommandEntity;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.ArcherEntity;
+import org.example.warpol.core.journal.CommandJournal;
+import org.example.warpol.core.journal.JournalRecord;
+import org.example.warpol.core.metrics.GameMetrics;
+import org.example.warpol.core.repository.CommandRepository;
+import org.example.warpol.core.repository.GameRepository;
+import org.example.warpol.core.repository.UnitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteBehindPersisterJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final GameEngine engine = new GameEngine(1);
+    private CommandJournal journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        engine.shutdown();
+        journal.close();
+    }
+
+    @Test
+    void failedDatabaseWrite_retriesUnitsOnly_andDoesNotJournalTwice() {
+        GameConfig config = new GameConfig();
+        config.getJournal().setDirectory(directory.toString());
+        journal = new CommandJournal(config);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("Database is down"));
+        WriteBehindPersister persister = new WriteBehindPersister(engine, mock(GameRepository.class),
+                mock(UnitRepository.class), mock(CommandRepository.class), new TransactionTemplate(transactionManager),
+                Optional.of(journal), new GameMetrics(new SimpleMeterRegistry()));
+
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(4);
+        game.setHeight(4);
+        ArcherEntity archer = new ArcherEntity();
+        archer.setId(UUID.randomUUID());
+        archer.setGame(game);
+        archer.setType(UnitType.ARCHER);
+        archer.setColor(PlayerColor.WHITE);
+        archer.setStatus(UnitStatus.ACTIVE);
+        engine.register(new GameState(game, List.of(archer)));
+        engine.execute(game.getId(), state -> {
+            archer.move(1, 0);
+            state.markDirty(archer);
+            CommandEntity command = new CommandEntity();
+            command.setGame(game);
+            command.setUnit(archer);
+            command.setColor(PlayerColor.WHITE);
+            command.setCommandType(CommandType.MOVE);
+            command.setTargetX(1);
+            command.setExecutionTime(LocalDateTime.now());
+            state.recordCommand(command);
+            return null;
+        });
+
+        persister.flush();
+        persister.flush();
+
+        AtomicInteger records = new AtomicInteger();
+        journal.replay(record -> records.incrementAndGet());
+        assertThat(records).hasValue(2);
+        List<PendingChanges> retried = engine.drainChanges();
+        assertThat(retried).singleElement().satisfies(changes -> {
+            assertThat(changes.units()).hasSize(1);
+            assertThat(changes.commands()).isEmpty();
+            assertThat(changes.events()).isEmpty();
+        });
+    }
+}
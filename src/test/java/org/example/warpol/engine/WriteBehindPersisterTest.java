@@ -0,0 +1,75 @@
+package org.example.warpol.engine;
+
+import org.example.warpol.core.dto.UnitResponse;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.WriteBehindPersister;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.repository.CommandRepository;
+import org.example.warpol.core.repository.GameRepository;
+import org.example.warpol.core.repository.UnitRepository;
+import org.example.warpol.core.service.GameService;
+import org.example.warpol.exception.GameNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class WriteBehindPersisterTest {
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private WriteBehindPersister persister;
+    @Autowired
+    private UnitRepository unitRepository;
+    @Autowired
+    private CommandRepository commandRepository;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private GameEngine gameEngine;
+
+    @Test
+    void flush_writesUnitAndCommandChanges() {
+        GameEntity game = gameService.createNewGame(Map.of(UnitType.CANNON, 1), 4, 4);
+        UnitResponse white = gameService.getUnits(game.getId(), PlayerColor.WHITE).get(0);
+        UnitResponse black = gameService.getUnits(game.getId(), PlayerColor.BLACK).get(0);
+        long commandsBefore = commandRepository.count();
+
+        gameService.executeCommand(game.getId(), white.id(), CommandType.SHOOT,
+                black.positionX(), black.positionY(), PlayerColor.WHITE);
+        persister.flush();
+
+        Unit target = unitRepository.findById(black.id()).orElseThrow();
+        Unit shooter = unitRepository.findById(white.id()).orElseThrow();
+        assertThat(target.getStatus()).isEqualTo(UnitStatus.DESTROYED);
+        assertThat(shooter.getLastCommandTime()).isNotNull();
+        assertThat(commandRepository.count()).isEqualTo(commandsBefore + 1);
+    }
+
+    @Test
+    void flush_marksFinishedGameInactiveAndUnloadsIt() {
+        GameEntity game = gameService.createNewGame(Map.of(UnitType.CANNON, 1), 4, 4);
+        UnitResponse white = gameService.getUnits(game.getId(), PlayerColor.WHITE).get(0);
+        UnitResponse black = gameService.getUnits(game.getId(), PlayerColor.BLACK).get(0);
+
+        gameService.executeCommand(game.getId(), white.id(), CommandType.SHOOT,
+                black.positionX(), black.positionY(), PlayerColor.WHITE);
+        persister.flush();
+
+        assertThat(gameRepository.findById(game.getId()).orElseThrow().isActive()).isFalse();
+        assertThat(gameEngine.isLoaded(game.getId())).isFalse();
+        assertThatThrownBy(() -> gameService.getUnits(game.getId(), PlayerColor.WHITE))
+                .isInstanceOf(GameNotFoundException.class);
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.warpol.journal;
+
+import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.engine.EpochNanos;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.engine.PendingChanges;
+import org.example.warpol.core.engine.UnitEvent;
+import org.example.warpol.core.entity.CommandEntity;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.ArcherEntity;
+import org.example.warpol.core.entity.unit.TransportEntity;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.journal.CommandJournal;
+import org.example.warpol.core.journal.JournalRecord;
+import org.example.warpol.core.journal.ReplayedUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private CommandJournal open() {
+        return open(1000);
+    }
+
+    private CommandJournal open(int snapshotInterval) {
+        GameConfig config = new GameConfig();
+        config.getJournal().setDirectory(directory.toString());
+        config.getJournal().setSegmentSize(4L * JournalRecord.SIZE);
+        config.getJournal().setSnapshotInterval(snapshotInterval);
+        return new CommandJournal(config);
+    }
+
+    private static UnitEvent event(UnitEvent.Kind kind, Unit unit, int x, int y, long timeNanos) {
+        return new UnitEvent(kind, unit.getId(), unit.getColor(), x, y, timeNanos);
+    }
+
+    private static <T extends Unit> T unit(T unit, GameEntity game, UnitType type, PlayerColor color, int x, int y) {
+        unit.setId(UUID.randomUUID());
+        unit.setGame(game);
+        unit.setType(type);
+        unit.setColor(color);
+        unit.setStatus(UnitStatus.ACTIVE);
+        unit.setPositionX(x);
+        unit.setPositionY(y);
+        return unit;
+    }
+
+    private static CommandEntity command(Unit unit, CommandType type, int x, int y, boolean moved, boolean destroyed) {
+        CommandEntity command = new CommandEntity();
+        command.setGame(unit.getGame());
+        command.setUnit(unit);
+        command.setColor(unit.getColor());
+        command.setCommandType(type);
+        command.setTargetX(x);
+        command.setTargetY(y);
+        command.setExecutionTime(LocalDateTime.now());
+        command.setMoved(moved);
+        command.setShotExecuted(type == CommandType.SHOOT);
+        command.setUnitDestroyed(destroyed);
+        return command;
+    }
+
+    @Test
+    void appendRotateReopenAndRebuild() throws Exception {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        ArcherEntity archer = unit(new ArcherEntity(), game, UnitType.ARCHER, PlayerColor.WHITE, 0, 0);
+        TransportEntity transport = unit(new TransportEntity(), game, UnitType.TRANSPORT, PlayerColor.WHITE, 3, 3);
+        TransportEntity enemy = unit(new TransportEntity(), game, UnitType.TRANSPORT, PlayerColor.BLACK, 0, 4);
+
+        CommandJournal journal = open();
+        journal.appendSpawns(List.of(archer, transport, enemy));
+        journal.append(new PendingChanges(game.getId(), List.of(),
+                List.of(command(archer, CommandType.MOVE, 0, 1, true, false),
+                        command(archer, CommandType.SHOOT, 0, 4, false, true)),
+                List.of(event(UnitEvent.Kind.MOVED, archer, 0, 1, 1), event(UnitEvent.Kind.DESTROYED, enemy, 0, 4, 2))));
+        journal.close();
+
+        journal = open();
+        assertThat(journal.getNextSequence()).isEqualTo(7);
+        journal.append(new PendingChanges(game.getId(), List.of(),
+                List.of(command(transport, CommandType.MOVE, 3, 5, true, false)),
+                List.of(event(UnitEvent.Kind.MOVED, transport, 3, 5, 3))));
+
+        try (var segments = Files.list(directory).filter(Files::isRegularFile)) {
+            assertThat(segments.count()).isEqualTo(3);
+        }
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        assertThat(records).extracting(JournalRecord::sequence).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(records).extracting(JournalRecord::kind).containsSubsequence(
+                JournalRecord.Kind.SPAWN, JournalRecord.Kind.MOVED, JournalRecord.Kind.DESTROYED, JournalRecord.Kind.COMMAND);
+
+        Map<UUID, ReplayedUnit> units = journal.rebuild(game.getId());
+        assertThat(units.get(archer.getId()))
+                .extracting(ReplayedUnit::positionX, ReplayedUnit::positionY, ReplayedUnit::commandCount)
+                .containsExactly(0, 1, 1);
+        assertThat(units.get(enemy.getId()).status()).isEqualTo(UnitStatus.DESTROYED);
+        assertThat(units.get(transport.getId()))
+                .extracting(ReplayedUnit::positionX, ReplayedUnit::positionY, ReplayedUnit::status)
+                .containsExactly(3, 5, UnitStatus.ACTIVE);
+        assertThat(journal.rebuild(UUID.randomUUID())).isEmpty();
+        journal.close();
+    }
+
+    @Test
+    void unloadedGame_isSnapshottedAndRebuiltOnDemand() throws Exception {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(8);
+        game.setHeight(8);
+        TransportEntity transport = unit(new TransportEntity(), game, UnitType.TRANSPORT, PlayerColor.WHITE, 0, 0);
+        GameEngine engine = new GameEngine(1);
+        GameConfig config = new GameConfig();
+        config.getJournal().setDirectory(directory.toString());
+        CommandJournal journal = new CommandJournal(config, engine);
+        engine.register(new GameState(game, List.of(transport)));
+        journal.appendSpawns(List.of(transport));
+        journal.append(new PendingChanges(game.getId(), List.of(), List.of(),
+                List.of(event(UnitEvent.Kind.MOVED, transport, 1, 0, EpochNanos.now()))));
+
+        engine.unregister(game.getId());
+
+        try (var snapshots = Files.list(directory.resolve("snapshots").resolve(game.getId().toString()))) {
+            assertThat(snapshots.count()).isEqualTo(1);
+        }
+        assertThat(journal.rebuild(game.getId()).get(transport.getId()))
+                .extracting(ReplayedUnit::positionX, ReplayedUnit::positionY)
+                .containsExactly(1, 0);
+        journal.append(new PendingChanges(game.getId(), List.of(), List.of(),
+                List.of(event(UnitEvent.Kind.MOVED, transport, 2, 0, EpochNanos.now()))));
+        assertThat(journal.rebuild(game.getId()).get(transport.getId()).positionX()).isEqualTo(2);
+        journal.close();
+        engine.shutdown();
+    }
+
+    @Test
+    void rebuildsAtAnyTime_fromNearestSnapshot_withoutEarlierSegments() throws Exception {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        TransportEntity transport = unit(new TransportEntity(), game, UnitType.TRANSPORT, PlayerColor.WHITE, 0, 0);
+        TransportEntity enemy = unit(new TransportEntity(), game, UnitType.TRANSPORT, PlayerColor.BLACK, 9, 9);
+
+        CommandJournal journal = open(4);
+        journal.appendSpawns(List.of(transport, enemy));
+        long start = EpochNanos.now();
+        for (int step = 1; step <= 10; step++) {
+            journal.append(new PendingChanges(game.getId(), List.of(), List.of(),
+                    List.of(event(UnitEvent.Kind.MOVED, transport, step, 0, start + step * 1_000L))));
+        }
+        journal.append(new PendingChanges(game.getId(), List.of(), List.of(),
+                List.of(event(UnitEvent.Kind.DESTROYED, enemy, 9, 9, start + 11_000L))));
+        journal.close();
+
+        try (var snapshots = Files.list(directory.resolve("snapshots").resolve(game.getId().toString()))) {
+            assertThat(snapshots.count()).isEqualTo(3);
+        }
+        try (var segments = Files.list(directory).filter(Files::isRegularFile).sorted()) {
+            for (Path segment : segments.limit(2).toList()) {
+                Files.delete(segment);
+            }
+        }
+
+        journal = open(4);
+        assertThat(journal.rebuild(game.getId(), start + 6_500L).get(transport.getId()))
+                .extracting(ReplayedUnit::positionX, ReplayedUnit::commandCount)
+                .containsExactly(6, 6);
+        assertThat(journal.rebuild(game.getId(), start + 10_000L).get(enemy.getId()).status()).isEqualTo(UnitStatus.ACTIVE);
+
+        Map<UUID, ReplayedUnit> latest = journal.rebuild(game.getId());
+        assertThat(latest.get(transport.getId()).positionX()).isEqualTo(10);
+        assertThat(latest.get(enemy.getId()).status()).isEqualTo(UnitStatus.DESTROYED);
+        journal.close();
+    }
+}
@@ -0,0 +1,239 @@
+package org.example.warpol.load;
+
+import org.example.warpol.WarpolApplication;
+import org.example.warpol.core.dto.UnitResponse;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.reactive.ReactiveGameServer;
+import org.example.warpol.core.service.GameService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures how many concurrent clients of {@code /command/execute} the server sustains with platform
+ * request threads, with {@code spring.threads.virtual.enabled} and on the reactive endpoints of
+ * {@code game.reactive.enabled}. Every client sends
+ * move commands for its own unit back to back, at each level of {@code load.clients} for
+ * {@code load.seconds}, after a warm-up of {@code load.warmup-seconds}. A level is sustained when no
+ * request fails and the 99th percentile latency stays within {@code load.p99-ms}; rejected commands
+ * count as served. The test itself only fails if requests fail at the first level.
+ * <p>
+ * Tagged {@code load} and left out of the regular build, run it with {@code mvn test -Pload}. The
+ * profile runs every mode in a JVM of its own through {@code load.modes}, so a mode is not measured
+ * on code the JIT already compiled for the one before it.
+ */
+@Tag("load")
+class CommandLoadTest {
+
+    private static final int[] CLIENTS = Arrays.stream(System.getProperty("load.clients", "50,200,800,3200").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim()))
+            .toArray();
+    private static final Duration STEP = Duration.ofSeconds(Long.getLong("load.seconds", 5));
+    private static final long P99_BUDGET_MS = Long.getLong("load.p99-ms", 500);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final int MIN_BOARD_SIZE = 64;
+    private static final int[][] STEPS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private static final Map<Mode, Integer> SUSTAINED = new ConcurrentSkipListMap<>();
+
+    enum Mode {
+        PLATFORM_THREADS, VIRTUAL_THREADS, REACTIVE
+    }
+
+    static Stream<Mode> modes() {
+        String modes = System.getProperty("load.modes");
+        return modes == null ? Arrays.stream(Mode.values())
+                : Arrays.stream(modes.split(",")).map(String::trim).map(Mode::valueOf);
+    }
+
+    @ParameterizedTest
+    @MethodSource("modes")
+    void executeCommands(Mode mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WarpolApplication.class)
+                .run("--server.port=0", "--spring.jpa.show-sql=false",
+                        "--spring.threads.virtual.enabled=" + (mode == Mode.VIRTUAL_THREADS),
+                        "--game.reactive.enabled=" + (mode == Mode.REACTIVE), "--game.reactive.port=0");
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            GameService gameService = context.getBean(GameService.class);
+            int port = mode == Mode.REACTIVE
+                    ? context.getBean(ReactiveGameServer.class).getPort()
+                    : context.getEnvironment().getProperty("local.server.port", Integer.class);
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/command/execute");
+
+            run(client, uri, gameService, CLIENTS[0], WARMUP);
+            int sustained = 0;
+            for (int clients : CLIENTS) {
+                Level level = run(client, uri, gameService, clients, STEP);
+                System.out.printf("%-16s %5d clients: %8.0f req/s, p50 %4d ms, p99 %5d ms, %d failed%n",
+                        mode, clients, level.throughput(), level.p50Ms(), level.p99Ms(), level.failed());
+                if (clients == CLIENTS[0]) {
+                    assertThat(level.failed()).isZero();
+                }
+                if (!level.sustained()) {
+                    break;
+                }
+                sustained = clients;
+            }
+            SUSTAINED.put(mode, sustained);
+        }
+    }
+
+    @AfterAll
+    static void report() {
+        SUSTAINED.forEach((mode, clients) ->
+                System.out.printf("%-16s sustained %d concurrent clients%n", mode, clients));
+    }
+
+    /**
+     * Runs the clients on a game of their own with one archer per client, on a board at most half
+     * full, so no two clients command the same unit and every level starts from a fresh board.
+     */
+    private static Level run(HttpClient client, URI uri, GameService gameService,
+                             int clients, Duration duration) throws Exception {
+        int boardSize = Math.max(MIN_BOARD_SIZE, (int) Math.ceil(Math.sqrt(4.0 * clients)));
+        GameEntity game = gameService.createNewGame(Map.of(UnitType.ARCHER, clients), boardSize, boardSize);
+        List<UnitResponse> units = gameService.getUnits(game.getId(), PlayerColor.WHITE);
+        assertThat(units).hasSize(clients);
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Client>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                UnitResponse unit = units.get(i);
+                futures.add(executor.submit(() -> sendUntil(client, uri, game, unit, deadline)));
+            }
+        }
+        long[] latencies = new long[0];
+        int failed = 0;
+        for (Future<Client> future : futures) {
+            Client result = future.get();
+            int from = latencies.length;
+            latencies = Arrays.copyOf(latencies, from + result.count());
+            System.arraycopy(result.latencies(), 0, latencies, from, result.count());
+            failed += result.failed();
+        }
+        Arrays.sort(latencies);
+        return new Level(latencies, failed, duration);
+    }
+
+    private static Client sendUntil(HttpClient client, URI uri, GameEntity game, UnitResponse unit, long deadline) {
+        Client result = new Client();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int boardSize = game.getWidth();
+        int x = unit.positionX();
+        int y = unit.positionY();
+        while (System.nanoTime() < deadline) {
+            int[] step = STEPS[random.nextInt(STEPS.length)];
+            int targetX = onBoard(x + step[0], boardSize) ? x + step[0] : x - step[0];
+            int targetY = onBoard(y + step[1], boardSize) ? y + step[1] : y - step[1];
+            String body = """
+                    {"gameId":"%s","playerColor":"WHITE","command":{"unitId":"%s","commandType":"MOVE","targetX":%d,"targetY":%d}}"""
+                    .formatted(game.getId(), unit.id(), targetX, targetY);
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(10))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            long startNanos = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                result.record(System.nanoTime() - startNanos, response.statusCode() < 500);
+                if (response.statusCode() == 200 && response.body().contains("\"moved\":true")) {
+                    x = targetX;
+                    y = targetY;
+                }
+            } catch (IOException ex) {
+                result.record(System.nanoTime() - startNanos, false);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static boolean onBoard(int coordinate, int boardSize) {
+        return coordinate >= 0 && coordinate < boardSize;
+    }
+
+    private static final class Client {
+        private long[] latencies = new long[256];
+        private int count;
+        private int failed;
+
+        void record(long nanos, boolean served) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!served) {
+                failed++;
+            }
+        }
+
+        long[] latencies() {
+            return latencies;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int failed() {
+            return failed;
+        }
+    }
+
+    private record Level(long[] sortedLatencies, int failed, Duration duration) {
+
+        double throughput() {
+            return sortedLatencies.length / (duration.toNanos() / 1e9);
+        }
+
+        long p50Ms() {
+            return percentileMs(0.50);
+        }
+
+        long p99Ms() {
+            return percentileMs(0.99);
+        }
+
+        boolean sustained() {
+            return failed == 0 && sortedLatencies.length > 0 && p99Ms() <= P99_BUDGET_MS;
+        }
+
+        private long percentileMs(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile * sortedLatencies.length) - 1);
+            return Duration.ofNanos(sortedLatencies[Math.max(0, index)]).toMillis();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.warpol.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.metrics.GameMetrics;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final GameMetrics metrics = new GameMetrics(registry);
+
+    @Test
+    void commandOfUnitWithoutType_isRecordedUnderNone() {
+        long start = System.nanoTime();
+
+        metrics.phase(GameMetrics.Phase.LOOKUP, CommandType.MOVE, null, start);
+        metrics.commandSucceeded(CommandType.MOVE, null, start);
+
+        assertThat(registry.get("game.command.phase").tag("phase", "lookup").tag("command", "MOVE").tag("unit", "NONE").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("game.command").tag("outcome", "success").tag("command", "MOVE").tag("unit", "NONE").timer().count())
+                .isEqualTo(1);
+    }
+}
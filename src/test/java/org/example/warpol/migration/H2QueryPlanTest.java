@@ -0,0 +1,21 @@
+package org.example.warpol.migration;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * H2 indexes every foreign key on its own and plans lookups by game on that index, sorting the
+ * history afterwards, so only the absence of a table scan is checked here.
+ */
+@SpringBootTest
+class H2QueryPlanTest extends QueryPlanTestSupport {
+
+    @Override
+    protected String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+    }
+
+    @Override
+    protected String fullScan() {
+        return "tableScan";
+    }
+}
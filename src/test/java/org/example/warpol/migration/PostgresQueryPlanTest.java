@@ -0,0 +1,59 @@
+package org.example.warpol.migration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the database at {@code POSTGRES_URL}, with {@code POSTGRES_USER} and
+ * {@code POSTGRES_PASSWORD}. Sequential scans are disabled while planning, since on the small
+ * tables of a test database they would win over any index. Here the history is also expected to be
+ * read in order from its own index rather than sorted.
+ */
+@SpringBootTest
+@ActiveProfiles("postgres")
+@EnabledIfEnvironmentVariable(named = "POSTGRES_URL", matches = ".+")
+class PostgresQueryPlanTest extends QueryPlanTestSupport {
+
+    @Override
+    protected void analyze() {
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Override
+    protected String plan(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+                List<String> lines = new ArrayList<>();
+                try (ResultSet plan = statement.executeQuery("explain " + sql)) {
+                    while (plan.next()) {
+                        lines.add(plan.getString(1));
+                    }
+                }
+                statement.execute("reset enable_seqscan");
+                return String.join("\n", lines);
+            }
+        });
+    }
+
+    @Override
+    protected String fullScan() {
+        return "Seq Scan";
+    }
+
+    @Test
+    void historyPages_useGameExecutionTimeIndex() {
+        assertThat(plan(firstHistoryPage())).containsIgnoringCase("idx_commands_game_execution_time");
+        assertThat(plan(nextHistoryPage())).containsIgnoringCase("idx_commands_game_execution_time");
+    }
+}
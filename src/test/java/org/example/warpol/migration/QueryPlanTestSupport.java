@@ -0,0 +1,105 @@
+package org.example.warpol.migration;
+
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.service.GameService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the queries the application sends to the database are planned on their indexes: the
+ * active games and their units when games are loaded, and pages of the command history. Subclasses
+ * run them against one database and return the plan as text. Several games with a command history
+ * are created first so that planners relying on statistics see realistic selectivity.
+ */
+abstract class QueryPlanTestSupport {
+
+    private static final Map<Class<?>, UUID> SEEDED_GAMES = new ConcurrentHashMap<>();
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    private UUID gameId;
+
+    protected abstract String plan(String sql);
+
+    /**
+     * How the database names reading a whole table in its plans.
+     */
+    protected abstract String fullScan();
+
+    /**
+     * Refreshes the planner statistics after seeding, where the database needs it.
+     */
+    protected void analyze() {
+    }
+
+    @BeforeEach
+    void seed() {
+        gameId = SEEDED_GAMES.computeIfAbsent(getClass(), type -> {
+            UUID last = null;
+            for (int i = 0; i < 10; i++) {
+                last = gameService.createNewGame(Map.of(UnitType.ARCHER, 100, UnitType.CANNON, 50), 32, 32).getId();
+                seedCommands(last);
+            }
+            analyze();
+            return last;
+        });
+    }
+
+    private void seedCommands(UUID gameId) {
+        UUID unitId = jdbcTemplate.queryForObject("select id from unit where game_id = ? limit 1", UUID.class, gameId);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> commands = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            commands.add(new Object[]{UUID.randomUUID(), gameId, unitId, Timestamp.valueOf(start.plusSeconds(i))});
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into commands (id, game_id, unit_id, color, command_type, execution_time,
+                                      moved, shot_executed, targetx, targety, unit_destroyed)
+                values (?, ?, ?, 'WHITE', 'SHOOT', ?, false, true, 0, 0, false)
+                """, commands);
+    }
+
+    protected String firstHistoryPage() {
+        return "select * from commands where game_id = '" + gameId + "' order by execution_time, id limit 50";
+    }
+
+    protected String nextHistoryPage() {
+        return "select * from commands where game_id = '" + gameId + "'"
+                + " and (execution_time > timestamp '2024-01-01 00:01:00'"
+                + " or (execution_time = timestamp '2024-01-01 00:01:00' and id > '" + new UUID(0, 0) + "'))"
+                + " order by execution_time, id limit 50";
+    }
+
+    @Test
+    void unitsOfGame_useAnIndexOnTheGame() {
+        assertThat(plan("select * from unit where game_id = '" + gameId + "'"))
+                .doesNotContainIgnoringCase(fullScan());
+    }
+
+    @Test
+    void historyPages_useAnIndexOnTheGame() {
+        assertThat(plan(firstHistoryPage())).doesNotContainIgnoringCase(fullScan());
+        assertThat(plan(nextHistoryPage())).doesNotContainIgnoringCase(fullScan());
+    }
+
+    @Test
+    void activeGames_useActiveGamesIndex() {
+        assertThat(plan("select * from games where is_active = true"))
+                .containsIgnoringCase("idx_games_active");
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.warpol.migration;
+
+import org.example.warpol.core.migration.UnitHandleMigration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UnitHandleMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UnitHandleMigration migration;
+
+    private void insertUnit(UUID gameId, UUID unitId, Integer handle) {
+        jdbcTemplate.update("insert into unit (id, game_id, handle, positionx, positiony, command_count, color, status, type)"
+                + " values (?, ?, ?, 1, 2, 0, 'WHITE', 'ACTIVE', 'ARCHER')", unitId, gameId, handle);
+    }
+
+    private Integer handle(UUID unitId) {
+        return jdbcTemplate.queryForObject("select handle from unit where id = ?", Integer.class, unitId);
+    }
+
+    @Test
+    void migrate_numbersUnitsWithoutHandleInIdOrderAfterTheOthers() {
+        UUID gameId = UUID.randomUUID();
+        jdbcTemplate.update("insert into games (id, width, height, is_active) values (?, 8, 8, false)", gameId);
+        UUID handled = new UUID(0, 9);
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        UUID third = new UUID(0, 3);
+        insertUnit(gameId, handled, 0);
+        insertUnit(gameId, third, null);
+        insertUnit(gameId, first, null);
+        insertUnit(gameId, second, null);
+
+        migration.migrate();
+
+        assertThat(handle(handled)).isZero();
+        assertThat(handle(first)).isEqualTo(1);
+        assertThat(handle(second)).isEqualTo(2);
+        assertThat(handle(third)).isEqualTo(3);
+    }
+
+    @Test
+    void migrate_ordersIdsLikeTheEngine_onBothSidesOfTheSignBit() {
+        UUID gameId = UUID.randomUUID();
+        jdbcTemplate.update("insert into games (id, width, height, is_active) values (?, 8, 8, false)", gameId);
+        UUID negative = new UUID(Long.MIN_VALUE, 1);
+        UUID negativeLow = new UUID(1, Long.MIN_VALUE);
+        UUID positive = new UUID(1, 1);
+        UUID positiveHigh = new UUID(Long.MAX_VALUE, 1);
+        insertUnit(gameId, positiveHigh, null);
+        insertUnit(gameId, positive, null);
+        insertUnit(gameId, negativeLow, null);
+        insertUnit(gameId, negative, null);
+
+        migration.migrate();
+
+        assertThat(handle(negative)).isZero();
+        assertThat(handle(negativeLow)).isEqualTo(1);
+        assertThat(handle(positive)).isEqualTo(2);
+        assertThat(handle(positiveHigh)).isEqualTo(3);
+    }
+}
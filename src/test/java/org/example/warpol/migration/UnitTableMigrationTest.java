@@ -0,0 +1,54 @@
+package org.example.warpol.migration;
+
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.ArcherEntity;
+import org.example.warpol.core.migration.UnitTableMigration;
+import org.example.warpol.core.repository.UnitRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loosens the unit table to recreate a legacy schema, so it runs on a database of its own and the
+ * context holding it is closed afterwards.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:unit-table-migration")
+@DirtiesContext
+class UnitTableMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UnitTableMigration migration;
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Test
+    void migrate_fillsMissingTypeAndDropsJoinedTables() {
+        UUID gameId = UUID.randomUUID();
+        UUID unitId = UUID.randomUUID();
+        jdbcTemplate.update("insert into games (id, width, height, is_active) values (?, 8, 8, false)", gameId);
+        jdbcTemplate.execute("alter table unit alter column type set null");
+        jdbcTemplate.update("insert into unit (id, game_id, positionx, positiony, command_count, color, status, type)"
+                + " values (?, ?, 1, 2, 0, 'WHITE', 'ACTIVE', null)", unitId, gameId);
+        jdbcTemplate.execute("create table archer_entity (id uuid not null primary key)");
+        jdbcTemplate.update("insert into archer_entity (id) values (?)", unitId);
+
+        migration.migrate();
+
+        assertThat(jdbcTemplate.queryForObject("select type from unit where id = ?", String.class, unitId))
+                .isEqualTo("ARCHER");
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where lower(table_name) = 'archer_entity'",
+                Integer.class)).isZero();
+        assertThat(unitRepository.findById(unitId)).get()
+                .isInstanceOf(ArcherEntity.class)
+                .extracting("type").isEqualTo(UnitType.ARCHER);
+    }
+}
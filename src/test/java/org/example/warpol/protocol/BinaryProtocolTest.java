@@ -0,0 +1,89 @@
+package org.example.warpol.protocol;
+
+import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.dto.ErrorResponse;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.protocol.BinaryCommand;
+import org.example.warpol.core.protocol.BinaryProtocol;
+import org.example.warpol.core.protocol.BinaryUnit;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryProtocolTest {
+
+    @Test
+    void command_roundTrips() {
+        BinaryCommand command = new BinaryCommand(UUID.randomUUID(), PlayerColor.BLACK, 70_000,
+                CommandType.SHOOT, 12, 3);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCommand.SIZE);
+
+        command.writeTo(buffer);
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(BinaryCommand.readFrom(buffer.flip())).isEqualTo(command);
+    }
+
+    @Test
+    void targetBeyondSixteenBits_isRejectedInsteadOfTruncated() {
+        assertThatThrownBy(() -> new BinaryCommand(UUID.randomUUID(), PlayerColor.BLACK, 1,
+                CommandType.MOVE, Short.MAX_VALUE + 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BinaryCommand(UUID.randomUUID(), PlayerColor.BLACK, 1,
+                CommandType.MOVE, 0, Short.MIN_VALUE - 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void truncatedCommand_isRejected() {
+        assertThatThrownBy(() -> BinaryCommand.readFrom(ByteBuffer.allocate(BinaryCommand.SIZE - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void commandWithUnknownType_isRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCommand.SIZE);
+        new BinaryCommand(UUID.randomUUID(), PlayerColor.WHITE, 0, CommandType.MOVE, 0, 0).writeTo(buffer);
+        buffer.put(21, (byte) 0x7F);
+
+        assertThatThrownBy(() -> BinaryCommand.readFrom(buffer.flip()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void units_roundTripInFewBytes() {
+        List<BinaryUnit> units = List.of(
+                new BinaryUnit(0, UnitType.ARCHER, UnitStatus.ACTIVE, 5, 7, 0),
+                new BinaryUnit(1, UnitType.CANNON, UnitStatus.ACTIVE, 2, 7, 300),
+                new BinaryUnit(4, UnitType.TRANSPORT, UnitStatus.DESTROYED, 1000, 0, 1));
+
+        byte[] bytes = BinaryProtocol.encodeUnits(42, units);
+
+        assertThat(BinaryProtocol.decodeUnits(ByteBuffer.wrap(bytes))).containsExactlyElementsOf(units);
+        assertThat(bytes.length).isLessThan(8 + 1 + units.size() * 8);
+    }
+
+    @Test
+    void result_isOneByteOfFlags() {
+        byte[] bytes = BinaryProtocol.encodeResult(new CommandResultResponse("Unit moved to (1,2)", true, true, false));
+
+        assertThat(bytes).containsExactly(BinaryProtocol.MOVED | BinaryProtocol.DESTROYED);
+    }
+
+    @Test
+    void error_roundTrips() {
+        ErrorResponse error = new ErrorResponse("CooldownNotElapsedException", "Wait 2 s — or longer");
+
+        byte[] bytes = BinaryProtocol.encodeError(error);
+
+        assertThat(BinaryProtocol.decodeError(ByteBuffer.wrap(bytes))).isEqualTo(error);
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.warpol.protocol;
+
+import org.example.warpol.core.config.BinaryProtocolConfiguration;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.protocol.BinaryCommand;
+import org.example.warpol.core.protocol.BinaryProtocol;
+import org.example.warpol.core.protocol.CommandStreamHandler;
+import org.example.warpol.core.service.GameService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CommandStreamTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @LocalServerPort
+    private int port;
+
+    private final BlockingQueue<ByteBuffer> answers = new LinkedBlockingQueue<>();
+    private final CompletableFuture<CloseStatus> closed = new CompletableFuture<>();
+
+    private WebSocketSession connect() throws Exception {
+        return new StandardWebSocketClient().execute(new BinaryWebSocketHandler() {
+                    @Override
+                    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+                        answers.add(message.getPayload());
+                    }
+
+                    @Override
+                    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+                        closed.complete(status);
+                    }
+                }, "ws://localhost:" + port + BinaryProtocolConfiguration.COMMAND_STREAM_PATH)
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private int cannonHandle(GameEntity game) {
+        return gameService.getUnits(game.getId(), PlayerColor.WHITE).stream()
+                .filter(unit -> unit.type() == UnitType.CANNON)
+                .findFirst()
+                .orElseThrow().handle();
+    }
+
+    @Test
+    void commandsInOneFrame_areAnsweredByCorrelationId() throws Exception {
+        GameEntity game = gameService.createNewGame(Map.of(UnitType.CANNON, 1), 8, 8, 7);
+        BinaryCommand shoot = new BinaryCommand(game.getId(), PlayerColor.WHITE, cannonHandle(game), CommandType.SHOOT, 0, 0);
+        ByteBuffer frame = ByteBuffer.allocate(2 * CommandStreamHandler.REQUEST_SIZE);
+        frame.putInt(1);
+        shoot.writeTo(frame);
+        frame.putInt(2);
+        shoot.writeTo(frame);
+
+        WebSocketSession session = connect();
+        session.sendMessage(new BinaryMessage(frame.flip()));
+
+        Map<Integer, ByteBuffer> byCorrelation = new HashMap<>();
+        for (int i = 0; i < 2; i++) {
+            ByteBuffer answer = answers.poll(10, TimeUnit.SECONDS);
+            assertThat(answer).isNotNull();
+            byCorrelation.put(answer.getInt(), answer);
+        }
+        session.close();
+
+        ByteBuffer first = byCorrelation.get(1);
+        assertThat(first.getShort()).isEqualTo((short) 200);
+        assertThat(first.get() & BinaryProtocol.SHOT).isEqualTo(BinaryProtocol.SHOT);
+        ByteBuffer second = byCorrelation.get(2);
+        assertThat(second.getShort()).isEqualTo((short) 425);
+        assertThat(BinaryProtocol.decodeError(second).error()).isEqualTo("CooldownNotElapsedException");
+    }
+
+    @Test
+    void truncatedFrame_closesTheStream() throws Exception {
+        WebSocketSession session = connect();
+        session.sendMessage(new BinaryMessage(new byte[CommandStreamHandler.REQUEST_SIZE - 1]));
+
+        assertThat(closed.get(10, TimeUnit.SECONDS).getCode()).isEqualTo(CloseStatus.BAD_DATA.getCode());
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.warpol.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.warpol.core.dto.CommandHistoryEntry;
+import org.example.warpol.core.dto.CommandHistoryPage;
+import org.example.warpol.core.entity.CommandEntity;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.repository.CommandRepository;
+import org.example.warpol.core.repository.UnitRepository;
+import org.example.warpol.core.service.CommandHistoryService;
+import org.example.warpol.core.service.GameService;
+import org.example.warpol.exception.GameNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class CommandHistoryServiceTest {
+
+    private static final int COMMANDS = 250;
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private CommandHistoryService commandHistoryService;
+    @Autowired
+    private UnitRepository unitRepository;
+    @Autowired
+    private CommandRepository commandRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private GameEntity gameWithCommands() {
+        GameEntity game = gameService.createNewGame(Map.of(UnitType.CANNON, 1), 4, 4);
+        Unit unit = unitRepository.findAllByGameId(game.getId()).get(0);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<CommandEntity> commands = new ArrayList<>();
+        for (int i = 0; i < COMMANDS; i++) {
+            CommandEntity command = new CommandEntity();
+            command.setGame(game);
+            command.setUnit(unit);
+            command.setColor(unit.getColor());
+            command.setCommandType(CommandType.SHOOT);
+            command.setTargetX(i % 4);
+            command.setTargetY(i / 4 % 4);
+            // pairs of commands share a timestamp, so pages have to be split by id as well
+            command.setExecutionTime(start.plusSeconds(i / 2));
+            commands.add(command);
+        }
+        commandRepository.saveAll(commands);
+        return game;
+    }
+
+    @Test
+    void getPage_walksAllCommandsInExecutionOrder() {
+        GameEntity game = gameWithCommands();
+
+        List<CommandHistoryEntry> seen = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            CommandHistoryPage page = commandHistoryService.getPage(game.getId(), cursor, 60);
+            assertThat(page.commands()).hasSizeLessThanOrEqualTo(60);
+            seen.addAll(page.commands());
+            cursor = page.next();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(5);
+        assertThat(seen).hasSize(COMMANDS);
+        assertThat(seen).extracting(CommandHistoryEntry::id).doesNotHaveDuplicates();
+        assertThat(seen).extracting(CommandHistoryEntry::executionTime).isSortedAccordingTo(Comparator.naturalOrder());
+    }
+
+    @Test
+    void export_writesOneJsonLinePerCommand() throws Exception {
+        GameEntity game = gameWithCommands();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        commandHistoryService.export(game.getId(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(COMMANDS);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("commandType").asText()).isEqualTo("SHOOT");
+        assertThat(first.get("unitId").asText()).isNotEmpty();
+        List<UUID> exported = new ArrayList<>();
+        for (String line : lines) {
+            exported.add(UUID.fromString(objectMapper.readTree(line).get("id").asText()));
+        }
+        assertThat(exported).containsExactlyElementsOf(
+                commandHistoryService.getPage(game.getId(), null, COMMANDS).commands().stream()
+                        .map(CommandHistoryEntry::id)
+                        .toList());
+    }
+
+    @Test
+    void getPage_rejectsUnknownGamesAndInvalidCursors() {
+        GameEntity game = gameService.createNewGame(Map.of(UnitType.CANNON, 1), 4, 4);
+
+        assertThat(commandHistoryService.getPage(game.getId(), null, 10).commands()).isEmpty();
+        assertThat(commandHistoryService.getPage(game.getId(), null, 10).next()).isNull();
+        assertThatThrownBy(() -> commandHistoryService.getPage(UUID.randomUUID(), null, 10))
+                .isInstanceOf(GameNotFoundException.class);
+        assertThatThrownBy(() -> commandHistoryService.getPage(game.getId(), "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.warpol.service;
+
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.journal.CommandJournal;
+import org.example.warpol.core.service.GameService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GameServiceTransactionTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("game.journal.enabled", () -> "true");
+        registry.add("game.journal.directory", journalDirectory::toString);
+    }
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private CommandJournal journal;
+    @Autowired
+    private GameEngine gameEngine;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void committedGame_isJournaledAndLoaded() {
+        GameEntity game = gameService.createNewGame(Map.of(UnitType.ARCHER, 2), 4, 4);
+
+        assertThat(journal.rebuild(game.getId())).hasSize(4);
+        assertThat(gameEngine.isLoaded(game.getId())).isTrue();
+    }
+
+    @Test
+    void rolledBackGame_leavesNothingBehind() {
+        GameEntity game = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return gameService.createNewGame(Map.of(UnitType.ARCHER, 2), 4, 4);
+        });
+
+        assertThat(journal.rebuild(game.getId())).isEmpty();
+        assertThat(gameEngine.isLoaded(game.getId())).isFalse();
+    }
+}
@@ -1,25 +1,44 @@
 package org.example.warpol.service;
 
-import jakarta.persistence.OptimisticLockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.dto.BatchCommandResult;
+import org.example.warpol.core.dto.BulkCommandResult;
 import org.example.warpol.core.dto.CommandResultResponse;
+import org.example.warpol.core.dto.ExecuteCommandRequest;
+import org.example.warpol.core.dto.UnitResponse;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.entity.CommandEntity;
 import org.example.warpol.core.entity.GameEntity;
 import org.example.warpol.core.entity.type.CommandType;
 import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
 import org.example.warpol.core.entity.unit.ArcherEntity;
 import org.example.warpol.core.entity.unit.TransportEntity;
 import org.example.warpol.core.entity.unit.Unit;
-import org.example.warpol.core.repository.CommandRepository;
+import org.example.warpol.core.metrics.GameMetrics;
 import org.example.warpol.core.repository.GameRepository;
 import org.example.warpol.core.repository.UnitRepository;
 import org.example.warpol.core.service.GameService;
 import org.example.warpol.core.service.RandomCommandHelper;
 import org.example.warpol.exception.CooldownNotElapsedException;
+import org.example.warpol.exception.GameNotFoundException;
+import org.example.warpol.exception.InvalidUnitCommandException;
+import org.example.warpol.exception.UnitNotFoundException;
 import org.example.warpol.exception.UnauthorizedUnitAccessException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -28,17 +47,16 @@ import static org.mockito.Mockito.*;
 class GameServiceUnitTest {
     private UnitRepository unitRepository;
     private GameRepository gameRepository;
-    private CommandRepository commandRepository;
     private GameConfig gameConfig;
-    private Random random;
     private RandomCommandHelper helper;
+    private GameEngine engine;
     private GameService service;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void init() {
         unitRepository = mock(UnitRepository.class);
         gameRepository = mock(GameRepository.class);
-        commandRepository = mock(CommandRepository.class);
         gameConfig = new GameConfig();
         gameConfig.setBoard(new GameConfig.Board());
         gameConfig.getBoard().setWidth(5);
@@ -47,109 +65,139 @@ class GameServiceUnitTest {
         gameConfig.getUnits().setArcher(1);
         gameConfig.getUnits().setCannon(1);
         gameConfig.getUnits().setTransport(1);
-        random = new Random(42);
         helper = mock(RandomCommandHelper.class);
-        service = new GameService(unitRepository, gameRepository, commandRepository,
-                gameConfig, random, helper);
+        when(helper.buildCommand(any(), any(), anyInt(), anyInt())).thenAnswer(i -> new CommandEntity());
+        engine = new GameEngine();
+        meterRegistry = new SimpleMeterRegistry();
+        service = new GameService(unitRepository, gameRepository,
+                gameConfig, helper, engine, Optional.empty(), new GameMetrics(meterRegistry));
+    }
+
+    private GameEntity registerGame(Unit... units) {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(5);
+        game.setHeight(5);
+        game.setActive(true);
+        engine.register(new GameState(game, List.of(units)));
+        return game;
+    }
+
+    private <T extends Unit> T mockUnit(Class<T> type, PlayerColor color, int x, int y) {
+        T unit = mock(type);
+        when(unit.getId()).thenReturn(UUID.randomUUID());
+        when(unit.getColor()).thenReturn(color);
+        when(unit.getPositionX()).thenReturn(x);
+        when(unit.getPositionY()).thenReturn(y);
+        when(unit.getStatus()).thenReturn(UnitStatus.ACTIVE);
+        when(unit.getType()).thenReturn(type == TransportEntity.class ? UnitType.TRANSPORT : UnitType.ARCHER);
+        when(unit.getCooldown(any())).thenReturn(Duration.ofSeconds(5));
+        return unit;
     }
 
     @Test
     void createNewGameFromConfig_setsUnits() {
-        when(gameRepository.findAll()).thenReturn(List.of(new GameEntity()));
-        when(gameRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(gameRepository.save(any())).thenAnswer(i -> {
+            GameEntity game = i.getArgument(0);
+            game.setId(UUID.randomUUID());
+            return game;
+        });
+        when(unitRepository.saveAll(anyList())).thenAnswer(i -> {
+            List<Unit> units = i.getArgument(0);
+            units.forEach(unit -> unit.setId(UUID.randomUUID()));
+            return units;
+        });
 
-        service.createNewGameFromConfig();
+        GameEntity game = service.createNewGameFromConfig();
 
-        verify(gameRepository, times(2)).save(any(GameEntity.class));
+        verify(gameRepository, times(1)).save(any(GameEntity.class));
+        verify(gameRepository, never()).findAll();
+        assertThat(engine.isLoaded(game.getId())).isTrue();
         int expectedUnits = (gameConfig.getUnits().getArcher()
                 + gameConfig.getUnits().getTransport()
                 + gameConfig.getUnits().getCannon())
                 * PlayerColor.values().length;
-        verify(unitRepository, times(expectedUnits)).save(any(Unit.class));
+        verify(unitRepository).saveAll(argThat(units -> ((List<?>) units).size() == expectedUnits));
+        verify(unitRepository, never()).save(any(Unit.class));
     }
 
     @Test
     void getUnits_returnsUnitsForActiveGame() {
-        GameEntity active = new GameEntity();
-        active.setId(UUID.randomUUID());
-        active.setActive(true);
-        List<Unit> list = List.of(mock(Unit.class));
-        when(gameRepository.findByIsActiveTrue()).thenReturn(Optional.of(active));
-        when(unitRepository.findByGameIdAndColor(active.getId(), PlayerColor.BLACK))
-                .thenReturn(list);
+        TransportEntity black = new TransportEntity();
+        black.setId(UUID.randomUUID());
+        black.setColor(PlayerColor.BLACK);
+        TransportEntity white = new TransportEntity();
+        white.setId(UUID.randomUUID());
+        white.setColor(PlayerColor.WHITE);
+        GameEntity game = registerGame(black, white);
 
-        var result = service.getUnits(PlayerColor.BLACK);
-        assertThat(result).isSameAs(list);
+        List<UnitResponse> result = service.getUnits(game.getId(), PlayerColor.BLACK);
+        assertThat(result).extracting(UnitResponse::id).containsExactly(black.getId());
+    }
+
+    @Test
+    void getUnits_unknownGame_throws() {
+        registerGame();
+        assertThatThrownBy(() -> service.getUnits(UUID.randomUUID(), PlayerColor.BLACK))
+                .isInstanceOf(GameNotFoundException.class);
+        verifyNoInteractions(unitRepository);
     }
 
     @Test
     void executeCommand_moveDestroysEnemy_andMoves() {
-        TransportEntity unit = mock(TransportEntity.class);
-        UUID id = UUID.randomUUID();
-        when(unitRepository.findById(id)).thenReturn(Optional.of(unit));
-        when(unit.getColor()).thenReturn(PlayerColor.WHITE);
-        when(unit.isCooldownElapsed(CommandType.MOVE)).thenReturn(true);
-        GameEntity game = new GameEntity();
-        game.setId(UUID.randomUUID());
-        game.setWidth(5);
-        game.setHeight(5);
-        when(unit.getGame()).thenReturn(game);
-        when(unitRepository.findAllByGameIdAndPositionXAndPositionY(game.getId(),3,2))
-                .thenReturn(List.of(mock(Unit.class)));
+        TransportEntity unit = mockUnit(TransportEntity.class, PlayerColor.WHITE, 1, 2);
+        Unit enemy = mockUnit(Unit.class, PlayerColor.BLACK, 3, 2);
+        GameEntity game = registerGame(unit, enemy);
         when(helper.isValid(unit, CommandType.MOVE,3,2)).thenReturn(true);
-        when(helper.destroyEnemies(anyList(), eq(unitRepository))).thenReturn(true);
+        when(helper.destroyEnemies(eq(List.of(enemy)), any(GameState.class))).thenReturn(true);
 
-        CommandResultResponse resp = service.executeCommand(id, CommandType.MOVE,3,2,PlayerColor.WHITE);
+        CommandResultResponse resp = service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE,3,2,PlayerColor.WHITE);
         assertThat(resp.moved()).isTrue();
         assertThat(resp.unitDestroyed()).isTrue();
         assertThat(resp.result()).contains("moved to (3,2)");
         verify(unit).move(3,2);
+        verifyNoInteractions(unitRepository);
     }
 
     @Test
     void executeCommand_shootDestroysAndResponds() {
-        ArcherEntity unit = mock(ArcherEntity.class);
-        UUID id = UUID.randomUUID();
-        when(unitRepository.findById(id)).thenReturn(Optional.of(unit));
-        when(unit.getColor()).thenReturn(PlayerColor.BLACK);
-        when(unit.isCooldownElapsed(CommandType.SHOOT)).thenReturn(true);
-        GameEntity game = new GameEntity();
-        game.setId(UUID.randomUUID());
-        game.setWidth(5);
-        game.setHeight(5);
-        when(unit.getGame()).thenReturn(game);
+        ArcherEntity unit = mockUnit(ArcherEntity.class, PlayerColor.BLACK, 1, 4);
+        GameEntity game = registerGame(unit, mockUnit(Unit.class, PlayerColor.WHITE, 1, 2));
         when(helper.isValid(unit, CommandType.SHOOT,1,2)).thenReturn(true);
-        when(unitRepository.findAllByGameIdAndPositionXAndPositionY(game.getId(),1,2))
-                .thenReturn(List.of(mock(Unit.class), mock(Unit.class)));
-        when(helper.destroyEnemies(anyList(), eq(unitRepository))).thenReturn(true);
+        when(helper.destroyEnemies(anyList(), any(GameState.class))).thenReturn(true);
 
-        CommandResultResponse resp = service.executeCommand(id, CommandType.SHOOT,1,2,PlayerColor.BLACK);
+        CommandResultResponse resp = service.executeCommand(game.getId(), unit.getId(), CommandType.SHOOT,1,2,PlayerColor.BLACK);
         assertThat(resp.shotExecuted()).isTrue();
         assertThat(resp.unitDestroyed()).isTrue();
         assertThat(resp.result()).contains("shot to (1,2)");
     }
 
+    @Test
+    void executeCommand_recordsChangesForWriteBehind() {
+        TransportEntity unit = mockUnit(TransportEntity.class, PlayerColor.WHITE, 1, 2);
+        GameEntity game = registerGame(unit);
+        when(helper.isValid(unit, CommandType.MOVE,2,2)).thenReturn(true);
+
+        service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE,2,2,PlayerColor.WHITE);
+
+        var changes = engine.drainChanges();
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).units()).hasSize(1);
+        assertThat(changes.get(0).commands()).hasSize(1);
+        assertThat(engine.drainChanges()).isEmpty();
+    }
+
     @Test
     void executeRandomCommand_usesHelper_andDelegates() {
-        UUID id = UUID.randomUUID();
-        TransportEntity unit = mock(TransportEntity.class);
-        when(unitRepository.findById(id)).thenReturn(Optional.of(unit));
-        when(helper.getRandomCommandForUnit(unit, random)).thenReturn(CommandType.MOVE);
-        when(helper.getRandomTargetFor(unit, CommandType.MOVE,5,5, random))
-                .thenReturn(new int[]{2,3});
+        TransportEntity unit = mockUnit(TransportEntity.class, PlayerColor.WHITE, 2, 2);
+        GameEntity game = registerGame(unit);
+        when(helper.getRandomCommandForUnit(eq(unit), any())).thenReturn(CommandType.MOVE);
+        when(helper.getRandomPackedTargetFor(eq(unit), eq(CommandType.MOVE), eq(5), eq(5), any()))
+                .thenReturn(RandomCommandHelper.packTarget(2, 3));
         when(helper.isValid(unit, CommandType.MOVE,2,3)).thenReturn(true);
-        when(unit.isCooldownElapsed(CommandType.MOVE)).thenReturn(true);
-        when(unit.getColor()).thenReturn(PlayerColor.WHITE);
-        GameEntity game = new GameEntity();
-        game.setId(UUID.randomUUID());
-        game.setWidth(5);
-        game.setHeight(5);
-        when(unit.getGame()).thenReturn(game);
-        when(unitRepository.findAllByGameIdAndPositionXAndPositionY(game.getId(),2,3))
-                .thenReturn(Collections.emptyList());
-        when(helper.destroyEnemies(anyList(), eq(unitRepository))).thenReturn(false);
+        when(helper.destroyEnemies(anyList(), any(GameState.class))).thenReturn(false);
 
-        CommandResultResponse r = service.executeRandomCommand(PlayerColor.WHITE, id);
+        CommandResultResponse r = service.executeRandomCommand(game.getId(), PlayerColor.WHITE, unit.getId());
         assertThat(r.moved()).isTrue();
         assertThat(r.shotExecuted()).isFalse();
         assertThat(r.result()).contains("moved to (2,3)");
@@ -157,31 +205,240 @@ class GameServiceUnitTest {
 
     @Test
     void executeCommand_invalidColor_throws() {
-        UUID id = UUID.randomUUID();
-        Unit unit = mock(Unit.class);
-        when(unitRepository.findById(id)).thenReturn(Optional.of(unit));
-        when(unit.getColor()).thenReturn(PlayerColor.WHITE);
-        assertThatThrownBy(() -> service.executeCommand(id, CommandType.MOVE,0,0,PlayerColor.BLACK))
+        Unit unit = mockUnit(Unit.class, PlayerColor.WHITE, 0, 0);
+        GameEntity game = registerGame(unit);
+        assertThatThrownBy(() -> service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE,0,0,PlayerColor.BLACK))
                 .isInstanceOf(UnauthorizedUnitAccessException.class);
     }
 
     @Test
     void executeCommand_cooldownNotElapsed_throws() {
-        UUID id = UUID.randomUUID();
-        Unit unit = mock(Unit.class);
-        when(unitRepository.findById(id)).thenReturn(Optional.of(unit));
-        when(unit.getColor()).thenReturn(PlayerColor.WHITE);
-        when(unit.isCooldownElapsed(CommandType.MOVE)).thenReturn(false);
-        assertThatThrownBy(() -> service.executeCommand(id, CommandType.MOVE,0,0,PlayerColor.WHITE))
+        Unit unit = mockUnit(Unit.class, PlayerColor.WHITE, 0, 0);
+        when(unit.getLastCommandTime()).thenReturn(LocalDateTime.now().minusSeconds(1));
+        GameEntity game = registerGame(unit);
+        assertThatThrownBy(() -> service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE,0,0,PlayerColor.WHITE))
                 .isInstanceOf(CooldownNotElapsedException.class);
     }
 
     @Test
-    void optimisticLock_onFindById_throws() {
-        UUID id = UUID.randomUUID();
-        when(unitRepository.findById(id)).thenThrow(OptimisticLockException.class);
-        assertThatThrownBy(() -> service.executeCommand(id, CommandType.MOVE,0,0,PlayerColor.WHITE))
-                .isInstanceOf(OptimisticLockException.class);
+    void executeCommand_rejectedCommand_releasesCooldown() {
+        Unit unit = mockUnit(Unit.class, PlayerColor.WHITE, 0, 0);
+        GameEntity game = registerGame(unit);
+        when(helper.isValid(unit, CommandType.MOVE,0,1)).thenReturn(false, true);
+
+        assertThatThrownBy(() -> service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE,0,1,PlayerColor.WHITE))
+                .hasMessage("Invalid command for unit type");
+        assertThat(service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE,0,1,PlayerColor.WHITE).moved())
+                .isTrue();
     }
-}
 
+    @Test
+    void executeCommand_concurrentCommandsForOneUnit_admitsExactlyOne() throws Exception {
+        TransportEntity unit = new TransportEntity();
+        unit.setId(UUID.randomUUID());
+        unit.setType(UnitType.TRANSPORT);
+        unit.setColor(PlayerColor.WHITE);
+        unit.setStatus(UnitStatus.ACTIVE);
+        GameEntity game = registerGame(unit);
+        when(helper.isValid(any(), any(), anyInt(), anyInt())).thenReturn(true);
+
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE,0,1,PlayerColor.WHITE);
+                    accepted.incrementAndGet();
+                } catch (CooldownNotElapsedException ex) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(accepted.get()).isEqualTo(1);
+        assertThat(rejected.get()).isEqualTo(threads - 1);
+        assertThat(engine.drainChanges().get(0).commands()).hasSize(1);
+    }
+
+    @Test
+    void executeCommands_resolvesInOrder_andReportsFailuresPerCommand() {
+        TransportEntity first = mockUnit(TransportEntity.class, PlayerColor.WHITE, 0, 0);
+        TransportEntity second = mockUnit(TransportEntity.class, PlayerColor.WHITE, 2, 2);
+        TransportEntity enemy = mockUnit(TransportEntity.class, PlayerColor.BLACK, 4, 4);
+        GameEntity game = registerGame(first, second, enemy);
+        when(helper.isValid(any(), eq(CommandType.MOVE), anyInt(), anyInt())).thenReturn(true);
+
+        List<BatchCommandResult> results = service.executeCommands(game.getId(), PlayerColor.WHITE, List.of(
+                new ExecuteCommandRequest(first.getId(), CommandType.MOVE, 0, 1),
+                new ExecuteCommandRequest(enemy.getId(), CommandType.MOVE, 4, 3),
+                new ExecuteCommandRequest(first.getId(), CommandType.MOVE, 0, 2),
+                new ExecuteCommandRequest(second.getId(), CommandType.MOVE, 2, 3)));
+
+        assertThat(results).extracting(BatchCommandResult::index).containsExactly(0, 1, 2, 3);
+        assertThat(results.get(0).result().moved()).isTrue();
+        assertThat(results.get(1).error().error()).isEqualTo("UnauthorizedUnitAccessException");
+        assertThat(results.get(2).error().error()).isEqualTo("CooldownNotElapsedException");
+        assertThat(results.get(3).result().result()).contains("moved to (2,3)");
+        assertThat(engine.drainChanges().get(0).commands()).hasSize(2);
+    }
+
+    @Test
+    void executeCommand_targetOutsideBoard_throws() {
+        Unit unit = mockUnit(Unit.class, PlayerColor.WHITE, 0, 0);
+        GameEntity game = registerGame(unit);
+        assertThatThrownBy(() -> service.executeCommand(game.getId(), unit.getId(), CommandType.SHOOT,0,5,PlayerColor.WHITE))
+                .isInstanceOf(InvalidUnitCommandException.class);
+    }
+
+    @Test
+    void executeCommand_unknownUnit_throws() {
+        GameEntity game = registerGame();
+        assertThatThrownBy(() -> service.executeCommand(game.getId(), UUID.randomUUID(), CommandType.MOVE,0,0,PlayerColor.WHITE))
+                .isInstanceOf(UnitNotFoundException.class)
+                .hasMessage("Unit not found");
+    }
+
+    @Test
+    void submitCommand_tickMode_resolvesOnTick_andCountsCooldownInTickTime() {
+        gameConfig.getTick().setEnabled(true);
+        TransportEntity unit = mockUnit(TransportEntity.class, PlayerColor.WHITE, 1, 2);
+        GameEntity game = registerGame(unit);
+        when(helper.isValid(eq(unit), eq(CommandType.MOVE), anyInt(), anyInt())).thenReturn(true);
+        long tick = TimeUnit.SECONDS.toNanos(1_000_000);
+
+        var first = service.submitCommand(game.getId(), unit.getId(), CommandType.MOVE, 2, 2, PlayerColor.WHITE);
+        var second = service.submitCommand(game.getId(), unit.getId(), CommandType.MOVE, 3, 2, PlayerColor.WHITE);
+        assertThat(first).isNotDone();
+
+        assertThat(engine.tick(tick)).isEqualTo(2);
+        assertThat(first.join().moved()).isTrue();
+        assertThat(second).isCompletedExceptionally();
+
+        var early = service.submitCommand(game.getId(), unit.getId(), CommandType.MOVE, 3, 2, PlayerColor.WHITE);
+        engine.tick(tick + TimeUnit.SECONDS.toNanos(5));
+        assertThatThrownBy(() -> GameEngine.await(early)).isInstanceOf(CooldownNotElapsedException.class);
+
+        var late = service.submitCommand(game.getId(), unit.getId(), CommandType.MOVE, 3, 2, PlayerColor.WHITE);
+        engine.tick(tick + TimeUnit.SECONDS.toNanos(6));
+        assertThat(late.join().moved()).isTrue();
+    }
+
+    @Test
+    void executeCommand_recordsPhasesAndOutcomes() {
+        TransportEntity unit = mockUnit(TransportEntity.class, PlayerColor.WHITE, 1, 2);
+        GameEntity game = registerGame(unit);
+        when(helper.isValid(unit, CommandType.MOVE, 2, 2)).thenReturn(true);
+
+        service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE, 2, 2, PlayerColor.WHITE);
+        assertThatThrownBy(() -> service.executeCommand(game.getId(), unit.getId(), CommandType.MOVE, 3, 2, PlayerColor.WHITE))
+                .isInstanceOf(CooldownNotElapsedException.class);
+
+        assertThat(meterRegistry.get("game.command").tags("command", "MOVE", "unit", "TRANSPORT", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("game.command").tags("unit", "TRANSPORT", "outcome", "CooldownNotElapsedException")
+                .timer().count()).isEqualTo(1);
+        for (GameMetrics.Phase phase : GameMetrics.Phase.values()) {
+            assertThat(meterRegistry.get("game.command.phase")
+                    .tags("phase", phase.name().toLowerCase(), "command", "MOVE", "unit", "TRANSPORT")
+                    .timer().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void getLineOfFire_returnsUnitsInRowAndColumn_ofOwnUnitOnly() {
+        Unit archer = mockUnit(ArcherEntity.class, PlayerColor.WHITE, 1, 1);
+        Unit inRow = mockUnit(Unit.class, PlayerColor.BLACK, 4, 1);
+        Unit inColumn = mockUnit(Unit.class, PlayerColor.WHITE, 1, 3);
+        Unit elsewhere = mockUnit(Unit.class, PlayerColor.BLACK, 3, 3);
+        GameEntity game = registerGame(archer, inRow, inColumn, elsewhere);
+
+        assertThat(service.getLineOfFire(game.getId(), archer.getId(), PlayerColor.WHITE))
+                .extracting(UnitResponse::id)
+                .containsExactlyInAnyOrder(inRow.getId(), inColumn.getId());
+        assertThat(service.getUnitsInArea(game.getId(), 2, 0, 4, 4, PlayerColor.BLACK))
+                .extracting(UnitResponse::id)
+                .containsExactlyInAnyOrder(inRow.getId(), elsewhere.getId());
+        assertThatThrownBy(() -> service.getLineOfFire(game.getId(), archer.getId(), PlayerColor.BLACK))
+                .isInstanceOf(UnauthorizedUnitAccessException.class);
+    }
+
+    @Test
+    void createNewGame_withSameSeed_isReproducible() {
+        when(gameRepository.save(any())).thenAnswer(i -> {
+            GameEntity game = i.getArgument(0);
+            game.setId(UUID.randomUUID());
+            return game;
+        });
+        when(unitRepository.saveAll(anyList())).thenAnswer(i -> {
+            List<Unit> units = i.getArgument(0);
+            units.forEach(unit -> unit.setId(UUID.randomUUID()));
+            return units;
+        });
+        RandomCommandHelper realHelper = new RandomCommandHelper();
+
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        for (List<String> trace : List.of(first, second)) {
+            GameEntity game = service.createNewGameFromConfig(1234L);
+            assertThat(game.getSeed()).isEqualTo(1234L);
+            engine.execute(game.getId(), state -> {
+                for (Unit unit : state.getUnits()) {
+                    CommandType type = realHelper.getRandomCommandForUnit(unit, state.getRandom());
+                    int[] target = realHelper.getRandomTargetFor(unit, type, 5, 5, state.getRandom());
+                    trace.add(unit.getType() + "@" + unit.getPositionX() + "," + unit.getPositionY()
+                            + " " + type + "->" + target[0] + "," + target[1]);
+                }
+                return null;
+            });
+        }
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void executeRandomCommands_issuesOneCommandPerActiveUnitOfPlayer_andRespectsCooldowns() {
+        RandomCommandHelper realHelper = new RandomCommandHelper();
+        GameService bulkService = new GameService(unitRepository, gameRepository,
+                gameConfig, realHelper, engine, Optional.empty(), new GameMetrics(meterRegistry));
+        TransportEntity first = new TransportEntity();
+        first.setId(UUID.randomUUID());
+        first.setType(UnitType.TRANSPORT);
+        first.setColor(PlayerColor.WHITE);
+        first.setStatus(UnitStatus.ACTIVE);
+        first.setPositionX(0);
+        first.setPositionY(0);
+        TransportEntity second = new TransportEntity();
+        second.setId(UUID.randomUUID());
+        second.setType(UnitType.TRANSPORT);
+        second.setColor(PlayerColor.WHITE);
+        second.setStatus(UnitStatus.ACTIVE);
+        second.setPositionX(4);
+        second.setPositionY(4);
+        TransportEntity enemy = new TransportEntity();
+        enemy.setId(UUID.randomUUID());
+        enemy.setType(UnitType.TRANSPORT);
+        enemy.setColor(PlayerColor.BLACK);
+        enemy.setStatus(UnitStatus.ACTIVE);
+        enemy.setPositionX(2);
+        enemy.setPositionY(0);
+        GameEntity game = registerGame(first, second, enemy);
+
+        BulkCommandResult result = bulkService.executeRandomCommands(game.getId(), PlayerColor.WHITE);
+        assertThat(result.issued()).isEqualTo(2);
+        assertThat(result.executed() + result.rejected()).isEqualTo(2);
+
+        BulkCommandResult again = bulkService.executeRandomCommands(game.getId(), PlayerColor.WHITE);
+        assertThat(again.issued()).isEqualTo(2);
+        assertThat(again.executed()).isLessThanOrEqualTo(2 - result.executed());
+        assertThat(enemy.getStatus() == UnitStatus.DESTROYED)
+                .isEqualTo(result.unitsDestroyed() + again.unitsDestroyed() > 0);
+    }
+}
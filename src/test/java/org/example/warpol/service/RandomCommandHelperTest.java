@@ -1,5 +1,6 @@
 package org.example.warpol.service;
 
+import org.example.warpol.core.engine.GameState;
 import org.example.warpol.core.entity.GameEntity;
 import org.example.warpol.core.entity.type.CommandType;
 import org.example.warpol.core.entity.type.PlayerColor;
@@ -8,7 +9,6 @@ import org.example.warpol.core.entity.unit.ArcherEntity;
 import org.example.warpol.core.entity.unit.CannonEntity;
 import org.example.warpol.core.entity.unit.TransportEntity;
 import org.example.warpol.core.entity.unit.Unit;
-import org.example.warpol.core.repository.UnitRepository;
 import org.example.warpol.core.service.RandomCommandHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -113,23 +113,23 @@ class RandomCommandHelperTest {
 
     @Test
     void destroyEnemies_emptyListReturnsFalse() {
-        UnitRepository repo = mock(UnitRepository.class);
-        boolean res = helper.destroyEnemies(Collections.emptyList(), repo);
+        GameState state = mock(GameState.class);
+        boolean res = helper.destroyEnemies(Collections.emptyList(), state);
         assertThat(res).isFalse();
-        verify(repo, never()).save(any());
+        verify(state, never()).markDirty(any());
     }
 
     @Test
     void destroyEnemies_nonEmptyDestroysAll() {
         Unit u1 = mock(Unit.class);
         Unit u2 = mock(Unit.class);
-        UnitRepository repo = mock(UnitRepository.class);
-        boolean res = helper.destroyEnemies(List.of(u1, u2), repo);
+        GameState state = mock(GameState.class);
+        boolean res = helper.destroyEnemies(List.of(u1, u2), state);
         assertThat(res).isTrue();
         verify(u1).destroy();
         verify(u2).destroy();
-        verify(repo).save(u1);
-        verify(repo).save(u2);
+        verify(state).markDirty(u1);
+        verify(state).markDirty(u2);
     }
 
     @Test
@@ -163,4 +163,11 @@ class RandomCommandHelperTest {
         assertThat(helper.hasFriendly(unit, List.of(enemy))).isFalse();
         assertThat(helper.hasFriendly(unit, List.of(enemy, friendly))).isTrue();
     }
+
+    @Test
+    void packTarget_roundTripsNegativeCoordinates() {
+        long packed = RandomCommandHelper.packTarget(-3, 7);
+        assertThat(RandomCommandHelper.targetX(packed)).isEqualTo(-3);
+        assertThat(RandomCommandHelper.targetY(packed)).isEqualTo(7);
+    }
 }
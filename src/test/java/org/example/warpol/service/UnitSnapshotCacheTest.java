@@ -0,0 +1,90 @@
+package org.example.warpol.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.ArcherEntity;
+import org.example.warpol.core.entity.unit.Unit;
+import org.example.warpol.core.service.UnitSnapshotCache;
+import org.example.warpol.exception.GameNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UnitSnapshotCacheTest {
+
+    private final GameEngine engine = new GameEngine(2);
+    private final UnitSnapshotCache cache = new UnitSnapshotCache(engine, new ObjectMapper());
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private Unit unit(PlayerColor color, int x) {
+        ArcherEntity unit = new ArcherEntity();
+        unit.setId(UUID.randomUUID());
+        unit.setType(UnitType.ARCHER);
+        unit.setColor(color);
+        unit.setStatus(UnitStatus.ACTIVE);
+        unit.setPositionX(x);
+        return unit;
+    }
+
+    @Test
+    void unchangedUnits_areServedFromCache_untilTheirColorChanges() {
+        Unit white = unit(PlayerColor.WHITE, 0);
+        Unit black = unit(PlayerColor.BLACK, 1);
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(4);
+        game.setHeight(4);
+        engine.register(new GameState(game, List.of(white, black)));
+
+        UnitSnapshotCache.Snapshot first = cache.get(game.getId(), PlayerColor.WHITE);
+        assertThat(new String(first.json())).contains(white.getId().toString()).doesNotContain(black.getId().toString());
+        assertThat(cache.get(game.getId(), PlayerColor.WHITE)).isSameAs(first);
+
+        engine.execute(game.getId(), state -> {
+            black.move(2, 0);
+            state.markDirty(black);
+            return null;
+        });
+        assertThat(cache.get(game.getId(), PlayerColor.WHITE)).isSameAs(first);
+
+        engine.execute(game.getId(), state -> {
+            white.move(3, 0);
+            state.markDirty(white);
+            return null;
+        });
+        UnitSnapshotCache.Snapshot changed = cache.get(game.getId(), PlayerColor.WHITE);
+        assertThat(changed.etag()).isNotEqualTo(first.etag());
+        assertThat(new String(changed.json())).contains("\"positionX\":3");
+    }
+
+    @Test
+    void unknownAndUnloadedGames_areNotFound() {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(4);
+        game.setHeight(4);
+        engine.register(new GameState(game, List.of(unit(PlayerColor.WHITE, 0))));
+        cache.get(game.getId(), PlayerColor.WHITE);
+
+        engine.unregister(game.getId());
+
+        assertThatThrownBy(() -> cache.get(game.getId(), PlayerColor.WHITE))
+                .isInstanceOf(GameNotFoundException.class);
+        assertThatThrownBy(() -> cache.get(UUID.randomUUID(), PlayerColor.WHITE))
+                .isInstanceOf(GameNotFoundException.class);
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.warpol.simulation;
+
+import org.example.warpol.core.engine.EpochNanos;
+import org.example.warpol.core.entity.type.CommandType;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.service.RandomCommandHelper;
+import org.example.warpol.core.simulation.GreedyStrategy;
+import org.example.warpol.core.simulation.MatchResult;
+import org.example.warpol.core.simulation.MatchSetup;
+import org.example.warpol.core.simulation.Order;
+import org.example.warpol.core.simulation.RandomStrategy;
+import org.example.warpol.core.simulation.SimulationReport;
+import org.example.warpol.core.simulation.Simulator;
+import org.example.warpol.core.simulation.Strategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimulatorTest {
+
+    private static final Map<UnitType, Integer> ARMY = Map.of(UnitType.ARCHER, 4, UnitType.CANNON, 2, UnitType.TRANSPORT, 2);
+    private static final Strategy IDLE = (unit, state, random) -> null;
+
+    private final RandomCommandHelper commandHelper = new RandomCommandHelper();
+    private final Simulator simulator = new Simulator(commandHelper);
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private MatchSetup setup(Map<UnitType, Integer> units, Strategy white, Strategy black, int maxSteps) {
+        return new MatchSetup(units, 8, 8, white, black, Duration.ofSeconds(1), maxSteps);
+    }
+
+    @Test
+    void run_sameSeed_givesSameReport() {
+        MatchSetup setup = setup(ARMY, new RandomStrategy(commandHelper), new RandomStrategy(commandHelper), 2_000);
+
+        SimulationReport first = simulator.run(setup, 50, 42L, pool);
+        SimulationReport second = simulator.run(setup, 50, 42L, pool);
+
+        assertThat(first.games()).isEqualTo(50);
+        assertThat(first.wins().values().stream().mapToInt(Integer::intValue).sum() + first.draws()).isEqualTo(50);
+        assertThat(second.wins()).isEqualTo(first.wins());
+        assertThat(second.draws()).isEqualTo(first.draws());
+        assertThat(second.averageSteps()).isEqualTo(first.averageSteps());
+        assertThat(second.commandsExecuted()).isEqualTo(first.commandsExecuted());
+        assertThat(second.commandsRejected()).isEqualTo(first.commandsRejected());
+    }
+
+    @Test
+    void play_greedyAgainstIdle_winsBeforeTheStepLimit() {
+        MatchSetup setup = setup(ARMY, new GreedyStrategy(new RandomStrategy(commandHelper)), IDLE, 10_000);
+
+        MatchResult result = simulator.play(setup, 7L);
+
+        assertThat(result.winner()).isEqualTo(PlayerColor.WHITE);
+        assertThat(result.steps()).isLessThan(10_000);
+        assertThat(result.length()).isEqualTo(Duration.ofSeconds(result.steps()));
+    }
+
+    @Test
+    void play_idlePlayers_drawAtTheStepLimit() {
+        MatchResult result = simulator.play(setup(ARMY, IDLE, IDLE, 100), 7L);
+
+        assertThat(result.winner()).isNull();
+        assertThat(result.steps()).isEqualTo(100);
+        assertThat(result.length()).isEqualTo(Duration.ofSeconds(100));
+        assertThat(result.commandsExecuted()).isZero();
+    }
+
+    private static final Strategy WANDER = (unit, state, random) -> {
+        int[][] moves = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int[] move : moves) {
+            int x = unit.getPositionX() + move[0];
+            int y = unit.getPositionY() + move[1];
+            if (state.isOnBoard(x, y) && state.unitAt(x, y) == null) {
+                return new Order(CommandType.MOVE, x, y);
+            }
+        }
+        return null;
+    };
+
+    @Test
+    void play_countsCooldownsInSimulatedTime() {
+        MatchSetup setup = setup(Map.of(UnitType.TRANSPORT, 1), WANDER, IDLE, 70);
+
+        MatchResult result = simulator.play(setup, 3L);
+
+        // a transport waits 7s between commands, so in 70 one-second steps it acts at 0s, 8s, ..., 64s
+        assertThat(result.winner()).isNull();
+        assertThat(result.commandsExecuted()).isEqualTo(9);
+        assertThat(result.commandsRejected()).isZero();
+    }
+
+    @Test
+    void play_gameStateReadsTheSimulatedClock() {
+        List<Long> times = new ArrayList<>();
+        List<LocalDateTime> lastCommands = new ArrayList<>();
+        Strategy recording = (unit, state, random) -> {
+            times.add(state.nowNanos());
+            lastCommands.add(unit.getLastCommandTime());
+            return WANDER.order(unit, state, random);
+        };
+
+        simulator.play(setup(Map.of(UnitType.TRANSPORT, 1), recording, IDLE, 20), 3L);
+
+        long eightSeconds = Duration.ofSeconds(8).toNanos();
+        assertThat(times).containsExactly(0L, eightSeconds, 2 * eightSeconds);
+        assertThat(lastCommands).containsExactly(null,
+                EpochNanos.toLocalDateTime(0L), EpochNanos.toLocalDateTime(eightSeconds));
+    }
+
+    @Test
+    void play_invalidOrders_areRejectedWithoutCooldown() {
+        Strategy offBoard = (unit, state, random) -> new Order(CommandType.SHOOT, -1, -1);
+        MatchResult result = simulator.play(setup(Map.of(UnitType.CANNON, 1), offBoard, IDLE, 10), 3L);
+
+        assertThat(result.commandsExecuted()).isZero();
+        assertThat(result.commandsRejected()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.warpol.stream;
+
+import org.example.warpol.core.config.GameConfig;
+import org.example.warpol.core.dto.BoardDelta;
+import org.example.warpol.core.engine.GameEngine;
+import org.example.warpol.core.engine.GameState;
+import org.example.warpol.core.entity.GameEntity;
+import org.example.warpol.core.entity.type.PlayerColor;
+import org.example.warpol.core.entity.type.UnitStatus;
+import org.example.warpol.core.entity.type.UnitType;
+import org.example.warpol.core.entity.unit.TransportEntity;
+import org.example.warpol.core.stream.BoardStream;
+import org.example.warpol.core.stream.BoardSubscription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BoardStreamTest {
+
+    private final GameEngine engine = new GameEngine(2);
+    private final BoardStream stream = new BoardStream(engine, new GameConfig());
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+        engine.shutdown();
+    }
+
+    private TransportEntity unit(int x, int y) {
+        TransportEntity unit = new TransportEntity();
+        unit.setId(UUID.randomUUID());
+        unit.setType(UnitType.TRANSPORT);
+        unit.setColor(PlayerColor.WHITE);
+        unit.setStatus(UnitStatus.ACTIVE);
+        unit.setPositionX(x);
+        unit.setPositionY(y);
+        return unit;
+    }
+
+    private UUID register(TransportEntity... units) {
+        GameEntity game = new GameEntity();
+        game.setId(UUID.randomUUID());
+        game.setWidth(8);
+        game.setHeight(8);
+        engine.register(new GameState(game, List.of(units)));
+        return game.getId();
+    }
+
+    @Test
+    void emitter_usesConfiguredTimeout() {
+        UUID gameId = register(unit(1, 1));
+
+        assertThat(stream.subscribe(gameId).getTimeout()).isEqualTo(new GameConfig().getStream().getTimeoutMs());
+    }
+
+    @Test
+    void subscriptionStartsWithBoard_thenReceivesDeltas() throws Exception {
+        TransportEntity unit = unit(1, 1);
+        UUID gameId = register(unit);
+        BlockingQueue<List<BoardDelta>> received = new LinkedBlockingQueue<>();
+
+        stream.subscribe(gameId, received::add);
+        assertThat(received.poll(5, TimeUnit.SECONDS))
+                .containsExactly(BoardDelta.unit(unit));
+
+        engine.execute(gameId, state -> {
+            unit.move(2, 1);
+            return null;
+        });
+        assertThat(received.poll(5, TimeUnit.SECONDS))
+                .extracting(BoardDelta::kind, BoardDelta::positionX)
+                .containsExactly(tuple(BoardDelta.Kind.MOVED, 2));
+    }
+
+    @Test
+    void slowSubscriber_getsCoalescedDeltas_withoutBlockingTheShard() throws Exception {
+        TransportEntity mover = unit(0, 0);
+        TransportEntity victim = unit(7, 7);
+        UUID gameId = register(mover, victim);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<List<BoardDelta>> received = new LinkedBlockingQueue<>();
+
+        stream.subscribe(gameId, deltas -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            received.add(deltas);
+        });
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int x = 1; x < 8; x++) {
+            int target = x;
+            engine.execute(gameId, state -> {
+                mover.move(target, 0);
+                return null;
+            });
+        }
+        engine.execute(gameId, state -> {
+            victim.destroy();
+            return null;
+        });
+        release.countDown();
+
+        received.poll(5, TimeUnit.SECONDS);
+        List<BoardDelta> coalesced = received.poll(5, TimeUnit.SECONDS);
+        Map<UUID, BoardDelta> byUnit = coalesced.stream()
+                .collect(Collectors.toMap(BoardDelta::unitId, delta -> delta));
+        assertThat(coalesced).hasSize(2);
+        assertThat(byUnit.get(mover.getId()).positionX()).isEqualTo(7);
+        assertThat(byUnit.get(victim.getId()).kind()).isEqualTo(BoardDelta.Kind.DESTROYED);
+    }
+
+    @Test
+    void unloadedGame_endsSubscriptionsAfterTheirLastDeltas() throws Exception {
+        TransportEntity unit = unit(1, 1);
+        UUID gameId = register(unit);
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+        BoardSubscription subscription = stream.subscribe(gameId,
+                deltas -> deltas.forEach(delta -> received.add(delta.kind().name())),
+                () -> received.add("END"));
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("UNIT");
+        engine.execute(gameId, state -> {
+            unit.move(2, 1);
+            return null;
+        });
+        engine.unregister(gameId);
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("MOVED");
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("END");
+        for (int i = 0; i < 50 && !subscription.isClosed(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(subscription.isClosed()).isTrue();
+    }
+
+    @Test
+    void failingSink_closesSubscription() throws Exception {
+        TransportEntity unit = unit(1, 1);
+        UUID gameId = register(unit);
+
+        BoardSubscription subscription = stream.subscribe(gameId, deltas -> {
+            throw new IOException("client gone");
+        });
+
+        for (int i = 0; i < 50 && !subscription.isClosed(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(subscription.isClosed()).isTrue();
+    }
+}